@@ -1,6 +1,9 @@
 package kpes.finapp.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -13,6 +16,10 @@ import java.util.regex.Pattern;
  */
 public abstract class AbstractStatement implements SSExportable {
 
+    // a PDF file starts with this header, some writers put other bytes before it
+    private static final byte[] PDF_HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final int PDF_HEADER_SEARCH_LENGTH = 1024;
+
     /* Fields */
 
     // regular expression to use for checking if text extracted is from a valid bank statement
@@ -24,11 +31,11 @@ public abstract class AbstractStatement implements SSExportable {
     // parsing status
     protected boolean parsed;
 
-    // summary
-    protected double beginningBalance;
-    protected double totalCredits;
-    protected double totalDebits;
-    protected double endingBalance;
+    // summary, in minor units (centavos) so that the validity checks are exact, see Money
+    protected long beginningBalance;
+    protected long totalCredits;
+    protected long totalDebits;
+    protected long endingBalance;
 
     // details
     protected List<AbstractTransaction> transactions;
@@ -59,18 +66,34 @@ public abstract class AbstractStatement implements SSExportable {
     }
 
     public double getBeginningBalance() {
-        return beginningBalance;
+        return Money.toDouble(beginningBalance);
     }
 
     public double getTotalCredits() {
-        return totalCredits;
+        return Money.toDouble(totalCredits);
     }
 
     public double getTotalDebits() {
-        return totalDebits;
+        return Money.toDouble(totalDebits);
     }
 
     public double getEndingBalance() {
+        return Money.toDouble(endingBalance);
+    }
+
+    public long getBeginningBalanceCents() {
+        return beginningBalance;
+    }
+
+    public long getTotalCreditsCents() {
+        return totalCredits;
+    }
+
+    public long getTotalDebitsCents() {
+        return totalDebits;
+    }
+
+    public long getEndingBalanceCents() {
         return endingBalance;
     }
 
@@ -91,15 +114,71 @@ public abstract class AbstractStatement implements SSExportable {
      * @return true if the extraction is successful, false otherwise
      */
     public boolean extractStatementText(Path path, TextExtractor<Path, String> extractor, String pw) {
-        if (Files.notExists(path)) throw new IllegalArgumentException("File does not exist");
-        if (!path.getFileName().toString().toLowerCase().endsWith(".pdf")) throw new IllegalArgumentException("File is not a PDF file");
 
-        String result = "";
+        try {
+            loadStatementText(path, extractor, pw);
+            return true;
+
+        } catch (IOException e) {
+            System.out.println("Possible parsing error or decryption error");
+            e.printStackTrace();
+            return false;
+        }
+
+    }
+
+    /**
+     * Same checks as {@link #extractStatementText(Path, TextExtractor, String)} but the extraction
+     * error is passed on to the caller instead of being reported as a boolean. Used by callers
+     * that need to tell the failure modes apart, like {@link StatementBatchProcessor}.
+     * When the extractor previews the text ({@link TextExtractor#probeText(Object, Object)}, off
+     * by default), a file whose preview does not match {@code pattern} is rejected without a
+     * full extraction.
+     * @param path - path to the Bank Statement PDF file
+     * @param extractor - {@link TextExtractor} implementation
+     * @param pw - password for decrypting encrypted Bank Statement PDF file 
+     * @throws IOException if the extractor cannot read or decrypt the file
+     * @throws IllegalArgumentException if the file does not exist, is not a PDF file or is not a Bank Statement
+     */
+    public void loadStatementText(Path path, TextExtractor<Path, String> extractor, String pw) throws IOException {
+        checkPdfFile(path);
+
+        // reject other documents from a preview, before extracting all pages
+        String probe = extractor.probeText(path, pw);
+        if (probe != null && !pattern.matcher(probe).find()) throw new IllegalArgumentException("File is not a Bank Statement");
+
+        acceptStatementText(extractor.extractText(path, pw));
+
+    }
+
+    /**
+     * Same as {@link #loadStatementText(Path, TextExtractor, String)} for a statement that is
+     * protected with one of a few possible passwords (i.e. birthdate formats). The file is read
+     * once, and the same bytes are used to find the password with {@link PasswordResolver} and
+     * to extract the text with that password.
+     * @param path - path to the Bank Statement PDF file
+     * @param extractor - {@link TextExtractor} implementation (i.e. {@code pdfBoxExtractor::extractText})
+     * @param passwords - possible passwords, tried in order
+     * @return the password that opened the file
+     * @throws IOException if none of the passwords opens the file or the extractor cannot read or decrypt it
+     * @throws IllegalArgumentException if the file does not exist, is not a PDF file, is not a Bank Statement or there are no passwords
+     */
+    public String loadStatementText(Path path, TextExtractor<byte[], String> extractor, List<String> passwords) throws IOException {
+        checkPdfFile(path);
+
+        return loadStatementText(Files.readAllBytes(path), extractor, passwords);
+
+    }
+
+    /**
+     * Same as {@link #extractStatementText(Path, TextExtractor, String)} with a few possible passwords
+     * @see #loadStatementText(Path, TextExtractor, List)
+     * @return true if the extraction is successful, false otherwise
+     */
+    public boolean extractStatementText(Path path, TextExtractor<byte[], String> extractor, List<String> passwords) {
 
         try {
-            result = extractor.extractText(path, pw);
-            if (!pattern.matcher(result).find()) throw new IllegalArgumentException("File is not a Bank Statement");
-            rawString = result;
+            loadStatementText(path, extractor, passwords);
             return true;
 
         } catch (IOException e) {
@@ -110,6 +189,101 @@ public abstract class AbstractStatement implements SSExportable {
 
     }
 
+    /**
+     * Same as {@link #loadStatementText(Path, TextExtractor, String)} for a document that is
+     * already in memory (i.e. an upload), so it does not have to be written to a file first.
+     * Instead of the file extension, the data is checked for the PDF header.
+     * @param data - content of the Bank Statement PDF file
+     * @param extractor - {@link TextExtractor} implementation (i.e. {@code pdfBoxExtractor::extractText})
+     * @param pw - password for decrypting encrypted Bank Statement PDF file 
+     * @throws IOException if the extractor cannot read or decrypt the data
+     * @throws IllegalArgumentException if the data is not a PDF file or is not a Bank Statement
+     */
+    public void loadStatementText(byte[] data, TextExtractor<byte[], String> extractor, String pw) throws IOException {
+        if (data == null || !hasPdfHeader(ByteBuffer.wrap(data))) throw new IllegalArgumentException("Data is not a PDF file");
+
+        acceptStatementText(extractor.extractText(data, pw));
+
+    }
+
+    /**
+     * Same as {@link #loadStatementText(byte[], TextExtractor, String)} with a few possible
+     * passwords, the password is found with {@link PasswordResolver} from the same data
+     * @param data - content of the Bank Statement PDF file
+     * @param extractor - {@link TextExtractor} implementation (i.e. {@code pdfBoxExtractor::extractText})
+     * @param passwords - possible passwords, tried in order
+     * @return the password that opened the document
+     * @throws IOException if none of the passwords opens the document or the extractor cannot read or decrypt it
+     * @throws IllegalArgumentException if the data is not a PDF file, is not a Bank Statement or there are no passwords
+     */
+    public String loadStatementText(byte[] data, TextExtractor<byte[], String> extractor, List<String> passwords) throws IOException {
+        if (data == null || !hasPdfHeader(ByteBuffer.wrap(data))) throw new IllegalArgumentException("Data is not a PDF file");
+
+        String pw = PasswordResolver.resolve(data, passwords);
+        loadStatementText(data, extractor, pw);
+        return pw;
+
+    }
+
+    /**
+     * Same as {@link #loadStatementText(byte[], TextExtractor, String)} for the bytes from the
+     * position to the limit of a buffer. The position of the buffer is not changed.
+     * @param data - content of the Bank Statement PDF file
+     * @param extractor - {@link TextExtractor} implementation (i.e. {@code pdfBoxExtractor::extractText})
+     * @param pw - password for decrypting encrypted Bank Statement PDF file 
+     * @throws IOException if the extractor cannot read or decrypt the data
+     * @throws IllegalArgumentException if the data is not a PDF file or is not a Bank Statement
+     */
+    public void loadStatementText(ByteBuffer data, TextExtractor<ByteBuffer, String> extractor, String pw) throws IOException {
+        if (data == null || !hasPdfHeader(data)) throw new IllegalArgumentException("Data is not a PDF file");
+
+        acceptStatementText(extractor.extractText(data, pw));
+
+    }
+
+    /**
+     * Same as {@link #loadStatementText(byte[], TextExtractor, String)} for a stream. The
+     * stream is handed to the extractor as is, so there is no check for the PDF header.
+     * @param data - content of the Bank Statement PDF file
+     * @param extractor - {@link TextExtractor} implementation (i.e. {@code pdfBoxExtractor::extractText})
+     * @param pw - password for decrypting encrypted Bank Statement PDF file 
+     * @throws IOException if the extractor cannot read or decrypt the data
+     * @throws IllegalArgumentException if the stream is null or is not a Bank Statement
+     */
+    public void loadStatementText(InputStream data, TextExtractor<InputStream, String> extractor, String pw) throws IOException {
+        if (data == null) throw new IllegalArgumentException("Data is not a PDF file");
+
+        acceptStatementText(extractor.extractText(data, pw));
+
+    }
+
+    /**
+     * @param path - path to the Bank Statement PDF file
+     * @throws IllegalArgumentException if the file does not exist or is not a PDF file
+     */
+    protected static void checkPdfFile(Path path) {
+        if (Files.notExists(path)) throw new IllegalArgumentException("File does not exist");
+        if (!path.getFileName().toString().toLowerCase().endsWith(".pdf")) throw new IllegalArgumentException("File is not a PDF file");
+    }
+
+    private void acceptStatementText(String result) {
+        if (!pattern.matcher(result).find()) throw new IllegalArgumentException("File is not a Bank Statement");
+        rawString = result;
+    }
+
+    /* "%PDF-" within the first 1024 remaining bytes, read without moving the position */
+    private static boolean hasPdfHeader(ByteBuffer data) {
+        int end = data.position() + Math.min(data.remaining(), PDF_HEADER_SEARCH_LENGTH) - PDF_HEADER.length;
+
+        for (int i = data.position(); i <= end; i++) {
+            int j = 0;
+            while (j < PDF_HEADER.length && data.get(i + j) == PDF_HEADER[j]) j++;
+            if (j == PDF_HEADER.length) return true;
+        }
+
+        return false;
+    }
+
 
     /**
      * Method for UNENCRYPTED bank statement. {@code pw} defaults to empty String
@@ -10,15 +10,23 @@ public abstract class AbstractTransaction {
 
     protected LocalDate transactionDate;
     protected String description;
-    protected double amount;
+
+    // in minor units (centavos), see Money
+    protected long amount;
 
     // constructor
     protected AbstractTransaction(LocalDate transactionDate, 
                                     String description,
                                     double amount) {
+        this(transactionDate, description, Money.toCents(amount));
+    }
+
+    protected AbstractTransaction(LocalDate transactionDate, 
+                                    String description,
+                                    long amountCents) {
         this.transactionDate = transactionDate;
         this.description = description;
-        this.amount = amount;
+        this.amount = amountCents;
 
     }
 
@@ -32,6 +40,10 @@ public abstract class AbstractTransaction {
     }
 
     public double getAmount() {
+        return Money.toDouble(amount);
+    }
+
+    public long getAmountCents() {
         return amount;
     }
 
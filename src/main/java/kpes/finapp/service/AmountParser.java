@@ -0,0 +1,88 @@
+package kpes.finapp.service;
+
+/**
+ * Parses amounts as they appear in bank statements (i.e. 1,234.56 ; -500.00 ; 0.5)
+ * into exact minor units (centavos) without creating a String or a formatter.
+ * @author Krizzia Santillan
+ */
+public final class AmountParser {
+
+    private static final int MAX_FRACTION_DIGITS = 2;
+
+    // keeps the amount in minor units below 10^18, so it never overflows a long
+    private static final int MAX_INTEGER_DIGITS = 16;
+
+    private AmountParser() {
+    }
+
+    /**
+     * @param amount - amount with optional leading minus sign, optional comma grouping
+     *                 and at most 2 decimal places
+     * @return the amount in minor units, i.e. 123456 for 1,234.56
+     * @throws NumberFormatException if {@code amount} is not a valid amount
+     */
+    public static long parseCents(CharSequence amount) {
+        return parseCents(amount, 0, amount.length());
+    }
+
+    /**
+     * Parses the amount found between {@code start} and {@code end} of {@code text},
+     * i.e. the region of a regex group ({@code matcher.start(g)}, {@code matcher.end(g)})
+     * @param text - text that contains the amount
+     * @param start - offset of the first char of the amount
+     * @param end - offset after the last char of the amount
+     * @return the amount in minor units, i.e. 123456 for 1,234.56
+     * @throws NumberFormatException if the region is not a valid amount
+     */
+    public static long parseCents(CharSequence text, int start, int end) {
+
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && text.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+
+        long cents = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;    // -1 until the decimal point
+
+        for (; i < end; i++) {
+            char ch = text.charAt(i);
+
+            if (ch >= '0' && ch <= '9') {
+                if (fractionDigits >= 0) {
+                    if (++fractionDigits > MAX_FRACTION_DIGITS) throw invalid(text, start, end);
+                } else if (++integerDigits > MAX_INTEGER_DIGITS) {
+                    throw invalid(text, start, end);
+                }
+                cents = cents * 10 + (ch - '0');
+
+            } else if (ch == ',' && fractionDigits < 0 && integerDigits > 0) {
+                // grouping separator, only between digits of the integer part
+                if (i + 1 == end || text.charAt(i + 1) < '0' || text.charAt(i + 1) > '9') throw invalid(text, start, end);
+
+            } else if (ch == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+
+            } else {
+                throw invalid(text, start, end);
+            }
+        }
+
+        if (integerDigits == 0 && fractionDigits <= 0) throw invalid(text, start, end);
+
+        // scale to exactly 2 decimal places
+        for (int d = Math.max(fractionDigits, 0); d < MAX_FRACTION_DIGITS; d++) {
+            cents *= 10;
+        }
+
+        return negative ? -cents : cents;
+    }
+
+    private static NumberFormatException invalid(CharSequence text, int start, int end) {
+        return new NumberFormatException("Invalid amount: \"" + text.subSequence(start, end) + "\"");
+    }
+
+}
@@ -0,0 +1,196 @@
+package kpes.finapp.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Finds every occurrence of a fixed set of keywords (anchors) in one pass over a text,
+ * using an Aho-Corasick automaton. The automaton is built once and can be shared,
+ * since scanning does not change it.
+ * @author Krizzia Santillan
+ */
+final class AnchorScanner {
+
+    private final String[] keywords;
+
+    // character classes: chars that appear in a keyword get their own class, everything else is 0
+    private final char[] classChars;
+    private final int classCount;
+
+    // transitions[state * classCount + class] = next state, failure links already resolved
+    private final int[] transitions;
+
+    // keywords that end in each state, including the ones reached through failure links
+    private final int[][] outputs;
+
+    /**
+     * @param keywords - anchors to look for, case sensitive. The index of a keyword in
+     *                   this list is used to look up its occurrences in {@link Anchors}
+     */
+    AnchorScanner(String... keywords) {
+        this.keywords = keywords.clone();
+
+        // character classes
+        char[] chars = String.join("", keywords).toCharArray();
+        Arrays.sort(chars);
+        StringBuilder distinct = new StringBuilder();
+        for (int i = 0; i < chars.length; i++) {
+            if (i == 0 || chars[i] != chars[i - 1]) distinct.append(chars[i]);
+        }
+        classChars = distinct.toString().toCharArray();
+        classCount = classChars.length + 1;
+
+        // trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new int[classCount]);
+        ends.add(new ArrayList<>());
+
+        for (int k = 0; k < keywords.length; k++) {
+            if (keywords[k].isEmpty()) throw new IllegalArgumentException("Keywords must not be empty");
+            int state = 0;
+            for (int i = 0; i < keywords[k].length(); i++) {
+                int c = classOf(keywords[k].charAt(i));
+                if (trie.get(state)[c] == 0) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(new int[classCount]);
+                    ends.add(new ArrayList<>());
+                }
+                state = trie.get(state)[c];
+            }
+            ends.get(state).add(k);
+        }
+
+        // failure links in breadth first order, turning the trie into a complete automaton
+        int stateCount = trie.size();
+        int[] failure = new int[stateCount];
+        transitions = new int[stateCount * classCount];
+        outputs = new int[stateCount][];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int c = 0; c < classCount; c++) {
+            int next = trie.get(0)[c];
+            transitions[c] = next;
+            if (next != 0) queue.add(next);
+        }
+        outputs[0] = new int[0];
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> found = new ArrayList<>(ends.get(state));
+            for (int k : outputs[failure[state]]) found.add(k);
+            outputs[state] = found.stream().mapToInt(Integer::intValue).toArray();
+
+            for (int c = 0; c < classCount; c++) {
+                int next = trie.get(state)[c];
+                if (next != 0) {
+                    failure[next] = transitions[failure[state] * classCount + c];
+                    transitions[state * classCount + c] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * classCount + c] = transitions[failure[state] * classCount + c];
+                }
+            }
+        }
+    }
+
+    private int classOf(char ch) {
+        int index = Arrays.binarySearch(classChars, ch);
+        return index < 0 ? 0 : index + 1;
+    }
+
+    int getKeywordCount() {
+        return keywords.length;
+    }
+
+    String getKeyword(int keyword) {
+        return keywords[keyword];
+    }
+
+    /**
+     * Scans the whole text once
+     * @param text - text to scan
+     * @return start offsets of every occurrence of every keyword
+     */
+    Anchors scan(CharSequence text) {
+        return scan(text, 0, text.length());
+    }
+
+    /**
+     * Scans {@code text} from {@code start} (inclusive) to {@code end} (exclusive) once
+     * @param text - text to scan
+     * @param start - offset where the scan starts
+     * @param end - offset where the scan stops
+     * @return start offsets of every occurrence of every keyword within the range
+     */
+    Anchors scan(CharSequence text, int start, int end) {
+        Anchors anchors = new Anchors(keywords.length);
+        int state = 0;
+
+        for (int i = start; i < end; i++) {
+            state = transitions[state * classCount + classOf(text.charAt(i))];
+            for (int k : outputs[state]) {
+                anchors.add(k, i + 1 - keywords[k].length());
+            }
+        }
+
+        return anchors;
+    }
+
+
+    /**
+     * Offsets of the keywords found by {@link AnchorScanner#scan(CharSequence)},
+     * in ascending order for each keyword
+     */
+    static final class Anchors {
+
+        private final int[][] positions;
+        private final int[] counts;
+
+        private Anchors(int keywordCount) {
+            positions = new int[keywordCount][];
+            counts = new int[keywordCount];
+        }
+
+        private void add(int keyword, int position) {
+            int[] list = positions[keyword];
+            if (list == null) {
+                list = positions[keyword] = new int[4];
+            } else if (counts[keyword] == list.length) {
+                list = positions[keyword] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[counts[keyword]++] = position;
+        }
+
+        /**
+         * @param keyword - index of the keyword
+         * @return number of occurrences of the keyword
+         */
+        int count(int keyword) {
+            return counts[keyword];
+        }
+
+        /**
+         * @param keyword - index of the keyword
+         * @param n - 0-based occurrence number
+         * @return start offset of the n-th occurrence of the keyword
+         */
+        int position(int keyword, int n) {
+            if (n >= counts[keyword]) throw new IndexOutOfBoundsException("Occurrence " + n + " of keyword " + keyword);
+            return positions[keyword][n];
+        }
+
+        /**
+         * @param keyword - index of the keyword
+         * @return start offset of the first occurrence, -1 if the keyword was not found
+         */
+        int first(int keyword) {
+            return counts[keyword] == 0 ? -1 : positions[keyword][0];
+        }
+
+    }
+
+}
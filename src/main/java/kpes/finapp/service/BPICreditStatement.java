@@ -1,19 +1,96 @@
 package kpes.finapp.service;
 
-import java.text.DecimalFormat;
-import java.text.ParseException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class BPICreditStatement extends CreditStatement {
 
-    private double unbilledInstallmentAmt;
+    /**
+     * Version of the parsing rules, to be increased with every change that gives a different
+     * result for the same text. Parsed statements kept by {@link ParsedStatementCache} with
+     * another version are parsed again.
+     */
+    public static final int PARSER_VERSION = 1;
+
+    /*
+    * Keywords that start the summary fields. All of them are found in one pass over
+    * rawString, then each field pattern is only tried at the offsets of its keyword.
+    */
+    private static final AnchorScanner ANCHOR_SCANNER = new AnchorScanner("STATEMENTDATE", "PAYMENTDUEDATE",
+                        "MINIMUMAMOUNTDUE", "PreviousBalance", "Total", "TOTALAMOUNTDUE", "FinanceCharge",
+                        "UnbilledInstallmentAmount", "Payment-ThankYou", "LateCharges");
+    private static final int STATEMENT_DATE = 0;
+    private static final int PAYMENT_DUE_DATE = 1;
+    private static final int MINIMUM_AMOUNT_DUE = 2;
+    private static final int PREVIOUS_BALANCE = 3;
+    private static final int TOTAL = 4;
+    private static final int TOTAL_AMOUNT_DUE = 5;
+    private static final int FINANCE_CHARGE = 6;
+    private static final int UNBILLED_INSTALLMENT = 7;
+    private static final int PAYMENT = 8;
+    private static final int LATE_CHARGES = 9;
+
+    /**
+     * Columns of the transaction table, in the order of the column starts given to
+     * {@link PDFBoxExtractor#extractRows(java.nio.file.Path, String, float...)}
+     */
+    public static final int TRANSACTION_DATE_COLUMN = 0;
+    public static final int POST_DATE_COLUMN = 1;
+    public static final int DESCRIPTION_COLUMN = 2;
+    public static final int AMOUNT_COLUMN = 3;
+
+    // longest possible "([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})" before the Payment and Late Charges keywords
+    private static final int MAX_DATES_LENGTH = 22;
+
+    private static final String AMOUNT = "((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
+    private static final Pattern STATEMENT_DATE_PATTERN = Pattern.compile("STATEMENTDATE([A-Z]{3,9}\\d\\d?,20\\d\\d)");
+    private static final Pattern DUE_DATE_PATTERN = Pattern.compile("PAYMENTDUEDATE([A-Z]{3,9}\\d\\d?,20\\d\\d)");
+    private static final Pattern MIN_AMOUNT_DUE_PATTERN = Pattern.compile("MINIMUMAMOUNTDUE" + AMOUNT);
+    private static final Pattern PREVIOUS_BALANCE_PATTERN = Pattern.compile("PreviousBalance" + AMOUNT);
+    private static final Pattern TOTAL_CREDITS_PATTERN = Pattern.compile("Total" + AMOUNT.repeat(7));
+    private static final Pattern TOTAL_DEBITS_PATTERN = Pattern.compile("Total" + AMOUNT.repeat(2));
+    private static final Pattern TOTAL_AMOUNT_DUE_PATTERN = Pattern.compile("TOTALAMOUNTDUE" + AMOUNT);
+    private static final Pattern FINANCE_CHARGE_PATTERN = Pattern.compile("FinanceCharge" + AMOUNT);
+    private static final Pattern UNBILLED_INSTALLMENT_PATTERN = Pattern.compile("UnbilledInstallmentAmount" + AMOUNT);
+    private static final Pattern PAYMENT_PATTERN = Pattern.compile("([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})Payment-ThankYou(-(\\d{1,3},)*\\d{1,3}\\.\\d{2})");
+    private static final Pattern LATE_CHARGES_PATTERN = Pattern.compile("([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})LateCharges" + AMOUNT);
+    private static final Pattern TRANSACTION_PATTERN = Pattern.compile(TransactionTokenizer.TRANSACTION_REGEX);
+    private static final Pattern INSTALLMENT_DETAILS_PATTERN = Pattern.compile("(\\d{6})(\\d{6})(.+\\D{2})((\\d{1,3},)*\\d{1,3}\\.\\d{2})((\\d{1,3},)*\\d{1,3}\\.\\d{2})");
+
+    /*
+    * One matcher per pattern and thread, reset to the text of the statement being parsed
+    * instead of creating a matcher for every field of every statement. Each keeps the last
+    * text it matched until it is reset to the next one.
+    */
+    private static final ThreadLocal<Map<Pattern, Matcher>> MATCHERS = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    // in minor units (centavos)
+    private long unbilledInstallmentAmt;
     private List<AbstractTransaction> installmentTxns;
 
+    // anchors found in scannedText, scanned again once rawString is replaced
+    private AnchorScanner.Anchors anchors;
+    private String scannedText;
+
+    // section offsets of rawString, found again once rawString is replaced
+    private BPIStatementSections sections;
+
+    // match the transaction listing with TRANSACTION_PATTERN instead of TransactionTokenizer
+    private boolean transactionRegex;
+
+    // table rows to read the transactions from instead of rawString, null to use rawString
+    private List<TableRow> transactionRows;
+
 
     public BPICreditStatement() {
         super();
@@ -27,41 +104,115 @@ public class BPICreditStatement extends CreditStatement {
     }
 
     public double getUnbilledInstallmentAmt() {
+        return Money.toDouble(unbilledInstallmentAmt);
+    }
+
+    public long getUnbilledInstallmentAmtCents() {
         return unbilledInstallmentAmt;
     }
+
+    // for restoring a parsed statement, see ParsedStatementCache
+    void setUnbilledInstallmentAmtCents(long unbilledInstallmentAmt) {
+        this.unbilledInstallmentAmt = unbilledInstallmentAmt;
+    }
+
+    public boolean isTransactionRegex() {
+        return transactionRegex;
+    }
+
+    /**
+     * The transaction listing is read with {@link TransactionTokenizer}, which finds the same
+     * transactions as the transaction regex in linear time. This switches back to the regex,
+     * i.e. to compare the results on a statement with a new layout.
+     * @param transactionRegex - true to match the transaction listing with the regex
+     */
+    public void setTransactionRegex(boolean transactionRegex) {
+        this.transactionRegex = transactionRegex;
+    }
     
+    public List<TableRow> getTransactionRows() {
+        return transactionRows;
+    }
+
+    /**
+     * Reads the transactions, payments and late charges from table rows that are already
+     * split into columns (see {@link PDFBoxExtractor#extractRows(java.nio.file.Path, String, float...)}),
+     * instead of finding them in the flattened {@link #rawString} with the transaction pattern.
+     * Rows without a date in both date columns and an amount in the amount column (i.e.
+     * headers and page footers) are skipped. Like the text, the rows are split into sections
+     * with {@link BPIStatementSections}: purchases are only read from the transaction listing
+     * of the first account, payments and late charges also from the rows before it. The
+     * installment purchases, other account blocks and the S.I.P. balance summary are skipped.
+     * Finance Charges are still read from the summary.
+     * @param transactionRows - rows with at least {@link #AMOUNT_COLUMN} + 1 columns, null to read rawString
+     */
+    public void setTransactionRows(List<TableRow> transactionRows) {
+        this.transactionRows = transactionRows;
+    }
+
+    /**
+     * Same as {@link #loadStatementText(Path, TextExtractor, String)} followed by
+     * {@link #setTransactionRows(List)}, with the text and the rows taken from one extraction
+     * ({@link PDFBoxExtractor#extractTable(Path, String, float...)}) instead of two.
+     * @param path - path to the Bank Statement PDF file
+     * @param extractor - extractor of the text and the rows
+     * @param pw - password for decrypting encrypted Bank Statement PDF file
+     * @param columnStarts - left edge of the columns of the transaction listing in points, in ascending order
+     * @throws IOException if the extractor cannot read or decrypt the file
+     * @throws IllegalArgumentException if the file does not exist, is not a PDF file or is not a Bank Statement
+     */
+    public void loadStatementTable(Path path, PDFBoxExtractor extractor, String pw, float... columnStarts) throws IOException {
+        List<TableRow> rows = new ArrayList<>();
+
+        loadStatementText(path, new TextExtractor<Path, String>() {
+            @Override
+            public String extractText(Path forExtraction, String credentials) throws IOException {
+                TableText table = extractor.extractTable(forExtraction, credentials, columnStarts);
+                rows.addAll(table.getRows());
+                return table.getText();
+            }
+
+            @Override
+            public String probeText(Path forExtraction, String credentials) throws IOException {
+                return extractor.probeText(forExtraction, credentials);
+            }
+        }, pw);
+
+        setTransactionRows(rows);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected Pattern createPattern() {
-        return Pattern.compile("Statement of Account");
+        // spaces are optional so that text extracted without spaces is also accepted
+        return Pattern.compile("Statement ?of ?Account");
     }
 
     /**
      * {@inheritDoc}
+     * Removes all spaces. Text that is already free of spaces (i.e. from a
+     * {@link PDFBoxExtractor} with {@code stripSpaces} enabled) is kept as is, without a copy.
      */
     @Override
     protected void preprocessRawText() {
-        rawString = rawString.replaceAll(" ", "");
+        rawString = rawString.replace(" ", "");
     }
 
     /**
      * {@inheritDoc}
-     * Uses additional function {@link #formatDate(String)} to fix extracted
-     * date format before converting it to {@link LocalDate} type.
+     * Uses {@link DateParser} to convert the extracted date (i.e. FEBRUARY04,2025)
+     * to {@link LocalDate} type.
      * @throws IllegalStateException when the pattern for Statement Date is not found
      */
     @Override
     protected void extractStatementDate() {
 
-        String dateRegex = "STATEMENTDATE([A-Z]{3,9}\\d\\d?,20\\d\\d)";
-        Pattern p = Pattern.compile(dateRegex);
-        Matcher matcher = p.matcher(rawString);
+        Matcher matcher = findAtAnchor(STATEMENT_DATE_PATTERN, STATEMENT_DATE);
 
-        if (matcher.find()) {
-            String rawDate = matcher.group(1);
-            statementDate = formatDate(rawDate);
+        if (matcher != null) {
+            statementDate = DateParser.parseMonthDayYear(rawString, matcher.start(1), matcher.end(1));
             return;
         }
 
@@ -71,20 +222,17 @@ public class BPICreditStatement extends CreditStatement {
 
     /**
      * {@inheritDoc}
-     * Uses additional function {@link #formatDate(String)} to fix extracted
-     * date format before converting it to {@link LocalDate} type.
+     * Uses {@link DateParser} to convert the extracted date (i.e. FEBRUARY04,2025)
+     * to {@link LocalDate} type.
      * @throws IllegalStateException when the pattern for Due Date is not found
      */
     @Override
     protected void extractDueDate() {
 
-        String dateRegex = "PAYMENTDUEDATE([A-Z]{3,9}\\d\\d?,20\\d\\d)";
-        Pattern p = Pattern.compile(dateRegex);
-        Matcher matcher = p.matcher(rawString);
+        Matcher matcher = findAtAnchor(DUE_DATE_PATTERN, PAYMENT_DUE_DATE);
 
-        if (matcher.find()) {
-            String rawDate = matcher.group(1);
-            dueDate = formatDate(rawDate);
+        if (matcher != null) {
+            dueDate = DateParser.parseMonthDayYear(rawString, matcher.start(1), matcher.end(1));
             return;
         }
 
@@ -92,26 +240,75 @@ public class BPICreditStatement extends CreditStatement {
     }
 
     /*
-    * Uses "MMMMd,yyyy" date pattern
-    * i.e. January1,2025 ; January12,2025
-    * accepts rawDate with month in all caps
+    * Scans rawString for all anchors once, and again only when rawString is replaced
+    * (i.e. by preprocessRawText). Compared by reference on purpose, a new String means new text.
     */
-    private LocalDate formatDate(String rawDate) {
+    private AnchorScanner.Anchors getAnchors() {
+        if (anchors == null || scannedText != rawString) {
+            anchors = ANCHOR_SCANNER.scan(rawString);
+            scannedText = rawString;
+        }
+        return anchors;
+    }
 
-        // convert into MMMM format (i.e from OCTOBER to October)
-        Pattern digit = Pattern.compile("\\d");
-        Matcher digitMatcher = digit.matcher(rawDate);
+    /*
+    * Finds the sections of rawString once, and again only when rawString is replaced,
+    * the same way as getAnchors().
+    */
+    private BPIStatementSections getSections() {
+        if (sections == null || !sections.isFor(rawString)) {
+            sections = BPIStatementSections.of(rawString);
+        }
+        return sections;
+    }
 
-        digitMatcher.find();
-        String month = rawDate.substring(1, digitMatcher.start());
-        month = rawDate.charAt(0) + month.toLowerCase();
-        
-        String dateYear = rawDate.substring(digitMatcher.start());
- 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMMd,yyyy");
-        String formattedDate = month + dateYear;        
-        return LocalDate.parse(formattedDate, formatter);
-    }    
+    /*
+    * Matcher of the current thread for the pattern, reset to rawString. A pattern is only
+    * matched by one field at a time, so its matcher is not reset while it is still read.
+    */
+    private Matcher matcher(Pattern pattern) {
+        return MATCHERS.get().computeIfAbsent(pattern, p -> p.matcher("")).reset(rawString);
+    }
+
+    /*
+    * Same result as pattern.matcher(rawString).find() for a pattern that starts with
+    * the anchor keyword, since every match has to start at one of the anchor offsets.
+    * Returns null when there is no match.
+    */
+    private Matcher findAtAnchor(Pattern pattern, int anchor) {
+        AnchorScanner.Anchors found = getAnchors();
+        Matcher matcher = matcher(pattern);
+
+        for (int i = 0; i < found.count(anchor); i++) {
+            matcher.region(found.position(anchor, i), rawString.length());
+            if (matcher.lookingAt()) return matcher;
+        }
+
+        return null;
+    }
+
+    /*
+    * Same result as pattern.matcher(rawString).find() for a pattern where the anchor keyword
+    * comes after the transaction and posting dates. No match can start more than
+    * MAX_DATES_LENGTH chars before the first anchor, so the search skips everything before it.
+    * Returns null when there is no match.
+    */
+    private Matcher findBeforeAnchor(Pattern pattern, int anchor) {
+        int first = getAnchors().first(anchor);
+        if (first < 0) return null;
+
+        Matcher matcher = matcher(pattern);
+        matcher.region(Math.max(0, first - MAX_DATES_LENGTH), rawString.length());
+        return matcher.find() ? matcher : null;
+    }
+
+    /*
+    * Transaction and posting dates have no year (i.e. January1 ; JANUARY12),
+    * the year of the statement date is used
+    */
+    private LocalDate parseDate(CharSequence text, MatchResult matcher, int group) {
+        return DateParser.parseMonthDay(text, matcher.start(group), matcher.end(group), statementDate.getYear());
+    }
 
     /**
      * {@inheritDoc}
@@ -119,12 +316,11 @@ public class BPICreditStatement extends CreditStatement {
      */
     @Override
     protected void extractMinAmtDue() {
-        String minAmtDueRegex = "MINIMUMAMOUNTDUE((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
-        Pattern p = Pattern.compile(minAmtDueRegex);
-        Matcher matcher = p.matcher(rawString);
 
-        if (matcher.find()) {
-            minAmountDue = parseAmount(matcher.group(1));
+        Matcher matcher = findAtAnchor(MIN_AMOUNT_DUE_PATTERN, MINIMUM_AMOUNT_DUE);
+
+        if (matcher != null) {
+            minAmountDue = parseAmount(rawString, matcher, 1);
             return;
         }
 
@@ -132,15 +328,12 @@ public class BPICreditStatement extends CreditStatement {
 
     }
 
-    private double parseAmount(String amount) {
-        DecimalFormat formatter = new DecimalFormat("###,###.###");
-        try {
-            return formatter.parse(amount).doubleValue();
-        } catch (ParseException e) {
-            System.out.println("Parsing error");
-            e.printStackTrace();
-            return 0;
-        }
+    /*
+    * Reads the amount in centavos straight from the matched group of text, no substring is created.
+    * Groups are only amounts already validated by the field patterns.
+    */
+    private long parseAmount(CharSequence text, MatchResult matcher, int group) {
+        return AmountParser.parseCents(text, matcher.start(group), matcher.end(group));
     }
 
     /**
@@ -149,12 +342,11 @@ public class BPICreditStatement extends CreditStatement {
      */
     @Override
     protected void extractPreviousBalance() {
-        String prevBalRegex = "PreviousBalance((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
-        Pattern p = Pattern.compile(prevBalRegex);
-        Matcher matcher = p.matcher(rawString);
 
-        if (matcher.find()) {
-            beginningBalance = parseAmount(matcher.group(1));
+        Matcher matcher = findAtAnchor(PREVIOUS_BALANCE_PATTERN, PREVIOUS_BALANCE);
+
+        if (matcher != null) {
+            beginningBalance = parseAmount(rawString, matcher, 1);
             return;
         }
 
@@ -167,15 +359,14 @@ public class BPICreditStatement extends CreditStatement {
      */
     @Override
     protected void extractTotalCredits() {
-        String creditsRegex = "Total((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
-        Pattern p = Pattern.compile(creditsRegex);
-        Matcher matcher = p.matcher(rawString);
-
-        if (matcher.find()) {
-            double purchAndAdv = parseAmount(matcher.group(5));
-            double installment = parseAmount(matcher.group(7));
-            double finCharge = parseAmount(matcher.group(9));
-            double lateCharge = parseAmount(matcher.group(11));                        
+
+        Matcher matcher = findAtAnchor(TOTAL_CREDITS_PATTERN, TOTAL);
+
+        if (matcher != null) {
+            long purchAndAdv = parseAmount(rawString, matcher, 5);
+            long installment = parseAmount(rawString, matcher, 7);
+            long finCharge = parseAmount(rawString, matcher, 9);
+            long lateCharge = parseAmount(rawString, matcher, 11);                        
             totalCredits = purchAndAdv + installment + finCharge + lateCharge;
             return;
         }
@@ -189,12 +380,11 @@ public class BPICreditStatement extends CreditStatement {
      */
     @Override
     protected void extractTotalDebits() {
-        String debitsRegex = "Total((\\d{1,3},)*\\d{1,3}\\.\\d\\d)((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
-        Pattern p = Pattern.compile(debitsRegex);
-        Matcher matcher = p.matcher(rawString);
 
-        if (matcher.find()) {                        
-            totalDebits = parseAmount(matcher.group(3));
+        Matcher matcher = findAtAnchor(TOTAL_DEBITS_PATTERN, TOTAL);
+
+        if (matcher != null) {                        
+            totalDebits = parseAmount(rawString, matcher, 3);
             return;
         }
 
@@ -207,12 +397,11 @@ public class BPICreditStatement extends CreditStatement {
      */
     @Override
     protected void extractTotalAmountDue() {
-        String amountDueRegex = "TOTALAMOUNTDUE((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
-        Pattern p = Pattern.compile(amountDueRegex);
-        Matcher matcher = p.matcher(rawString);
 
-        if (matcher.find()) {
-            endingBalance = parseAmount(matcher.group(1));
+        Matcher matcher = findAtAnchor(TOTAL_AMOUNT_DUE_PATTERN, TOTAL_AMOUNT_DUE);
+
+        if (matcher != null) {
+            endingBalance = parseAmount(rawString, matcher, 1);
             return;
         }
 
@@ -227,22 +416,119 @@ public class BPICreditStatement extends CreditStatement {
     @Override
     protected void extractTransactionList() {
 
-        // Purchases and Advances Transactions
-        String transactionsOnly = extractTransactionsOnly().split("S.I.P.BALANCESUMMARY")[0];
+        if (transactionRows != null) {
+            extractTransactionRows();
+        } else {
+            extractTransactionText();
+        }
 
-        if (!transactionsOnly.isEmpty()) {
-            String txnRegex = "([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})(.+\\D{2}(:\\d{2}/\\d{2})?)(-?(\\d{1,3},)*\\d{1,3}\\.\\d{2})";
-            Pattern p = Pattern.compile(txnRegex);
-            Matcher matcher = p.matcher(transactionsOnly);
+        // Finance Charges
+        // Note: No check for invalid/outdated finance charges pattern
+        Matcher financeMatcher = findAtAnchor(FINANCE_CHARGE_PATTERN, FINANCE_CHARGE);
+        
+        if (financeMatcher != null) {                        
+            long amount = parseAmount(rawString, financeMatcher, 1);
 
-            while (matcher.find()){
+            if (amount != 0) {
+                AbstractTransaction txn = CreditTransaction.ofCents(statementDate,"Finance Charges", amount, statementDate);
+                transactions.add(txn);
+            }
+
+        }
+        
+    }
+
+    /*
+    * Purchases and Advances, Payment and Late Charges from the table rows. The cells are
+    * read with DateParser and AmountParser directly, a row that is not a transaction fails
+    * one of them and is skipped. The rows are joined into one text like rawString (without
+    * spaces, one row per line) so that BPIStatementSections finds the same sections, and
+    * they fail the same way as rawString when the delimiter or the purchases are missing.
+    */
+    private void extractTransactionRows() {
+        StringBuilder joined = new StringBuilder();
+        int[] rowEnds = new int[transactionRows.size()];
+        for (int i = 0; i < rowEnds.length; i++) {
+            TableRow row = transactionRows.get(i);
+            for (int column = 0; column < row.getCellCount(); column++) {
+                joined.append(row.getCell(column).replace(" ", ""));
+            }
+            rowEnds[i] = joined.length();
+            joined.append('\n');
+        }
+        BPIStatementSections found = checkSections(BPIStatementSections.of(joined.toString()));
+
+        int purchases = 0;
+        int rowStart = 0;
+        for (int i = 0; i < rowEnds.length; i++) {
+            TableRow row = transactionRows.get(i);
+            boolean header = rowEnds[i] <= found.getHeaderEnd();
+            boolean listing = rowStart >= found.getTransactionsStart() && rowEnds[i] <= found.getTransactionsEnd();
+            rowStart = rowEnds[i] + 1;
+
+            if (!header && !listing) continue;
+            if (row.getCellCount() <= AMOUNT_COLUMN) continue;
+
+            String txnDateCell = row.getCell(TRANSACTION_DATE_COLUMN).replace(" ", "");
+            String postDateCell = row.getCell(POST_DATE_COLUMN).replace(" ", "");
+            String amountCell = row.getCell(AMOUNT_COLUMN).replace(" ", "");
+            String description = row.getCell(DESCRIPTION_COLUMN).replace(" ", "");
+
+            // same descriptions as the Payment and Late Charges patterns, only these are read before the listing
+            if (description.startsWith("Payment-ThankYou")) description = "Payment";
+            else if (description.equals("LateCharges")) description = "Late Charges";
+            else if (!listing) continue;
+
+            LocalDate txnDate;
+            LocalDate postDate;
+            long amount;
+            try {
+                txnDate = DateParser.parseMonthDay(txnDateCell, 0, txnDateCell.length(), statementDate.getYear());
+                postDate = DateParser.parseMonthDay(postDateCell, 0, postDateCell.length(), statementDate.getYear());
+                amount = AmountParser.parseCents(amountCell);
+            } catch (DateTimeException | NumberFormatException e) {
+                continue;
+            }
+
+            transactions.add(CreditTransaction.ofCents(txnDate, description, amount, postDate));
+            if (listing) purchases++;
+        }
+
+        if (found.hasTransactions() && purchases == 0) {
+            throw new IllegalStateException("Did not find match using current Transaction Pattern");
+        }
+    }
+
+    /* Purchases and Advances, Payment and Late Charges from rawString */
+    private void extractTransactionText() {
+
+        // Purchases and Advances Transactions
+        BPIStatementSections found = getTransactionSections();
+
+        if (found.hasTransactions()) {
+            int start = found.getTransactionsStart();
+            int end = found.getTransactionsEnd();
+            MatchResult matcher;
+            BooleanSupplier next;
+
+            if (transactionRegex) {
+                Matcher regexMatcher = matcher(TRANSACTION_PATTERN).region(start, end);
+                matcher = regexMatcher;
+                next = regexMatcher::find;
+            } else {
+                TransactionTokenizer tokenizer = new TransactionTokenizer(rawString, start, end);
+                matcher = tokenizer;
+                next = tokenizer::find;
+            }
+
+            while (next.getAsBoolean()){
                 
-                LocalDate txnDate = formatDate(matcher.group(1).trim() + "," + statementDate.getYear());
-                LocalDate postDate = formatDate(matcher.group(2).trim() + "," + statementDate.getYear());
+                LocalDate txnDate = parseDate(rawString, matcher, 1);
+                LocalDate postDate = parseDate(rawString, matcher, 2);
                 String description = matcher.group(3);
-                double amount = parseAmount(matcher.group(5));
+                long amount = parseAmount(rawString, matcher, 5);
 
-                AbstractTransaction txn = new CreditTransaction(txnDate, description, amount, postDate);
+                AbstractTransaction txn = CreditTransaction.ofCents(txnDate, description, amount, postDate);
                 transactions.add(txn);
             }
 
@@ -254,54 +540,32 @@ public class BPICreditStatement extends CreditStatement {
 
         // Payment Transaction
         // Note: No check for invalid/outdated payment pattern
-        String paymentRegex = "([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})Payment-ThankYou(-(\\d{1,3},)*\\d{1,3}\\.\\d{2})";
-        Pattern paymentPattern = Pattern.compile(paymentRegex);
-        Matcher paymentMatcher = paymentPattern.matcher(rawString);
+        Matcher paymentMatcher = findBeforeAnchor(PAYMENT_PATTERN, PAYMENT);
         
-        if (paymentMatcher.find()) {                        
-            LocalDate txnDate = formatDate(paymentMatcher.group(1).trim() + "," + statementDate.getYear());
-            LocalDate postDate = formatDate(paymentMatcher.group(2).trim() + "," + statementDate.getYear());
+        if (paymentMatcher != null) {                        
+            LocalDate txnDate = parseDate(rawString, paymentMatcher, 1);
+            LocalDate postDate = parseDate(rawString, paymentMatcher, 2);
             String description = "Payment";
-            double amount = parseAmount(paymentMatcher.group(3));
+            long amount = parseAmount(rawString, paymentMatcher, 3);
 
-            AbstractTransaction txn = new CreditTransaction(txnDate, description, amount, postDate);
+            AbstractTransaction txn = CreditTransaction.ofCents(txnDate, description, amount, postDate);
             transactions.add(txn);
         } 
 
         // Late Charges
         // Note: No check for invalid/outdated late charges pattern
-        String lateRegex = "([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})LateCharges((\\d{1,3},)*\\d{1,3}\\.\\d{2})";
-        Pattern latePattern = Pattern.compile(lateRegex);
-        Matcher lateMatcher = latePattern.matcher(rawString);
+        Matcher lateMatcher = findBeforeAnchor(LATE_CHARGES_PATTERN, LATE_CHARGES);
         
-        if (lateMatcher.find()) {                        
-            LocalDate txnDate = formatDate(lateMatcher.group(1).trim() + "," + statementDate.getYear());
-            LocalDate postDate = formatDate(lateMatcher.group(2).trim() + "," + statementDate.getYear());
+        if (lateMatcher != null) {                        
+            LocalDate txnDate = parseDate(rawString, lateMatcher, 1);
+            LocalDate postDate = parseDate(rawString, lateMatcher, 2);
             String description = "Late Charges";
-            double amount = parseAmount(lateMatcher.group(3));
+            long amount = parseAmount(rawString, lateMatcher, 3);
 
-            AbstractTransaction txn = new CreditTransaction(txnDate, description, amount, postDate);
+            AbstractTransaction txn = CreditTransaction.ofCents(txnDate, description, amount, postDate);
             transactions.add(txn);
         }
 
-
-        // Finance Charges
-        // Note: No check for invalid/outdated finance charges pattern
-        String financeRegex = "FinanceCharge((\\d{1,3},)*\\d{1,3}\\.\\d{2})";
-        Pattern financePattern = Pattern.compile(financeRegex);
-        Matcher financeMatcher = financePattern.matcher(rawString);
-        
-        if (financeMatcher.find()) {                        
-            double amount = parseAmount(financeMatcher.group(1));
-
-            if (amount != 0) {
-                AbstractTransaction txn = new CreditTransaction(statementDate,"Finance Charges", amount, statementDate);
-                transactions.add(txn);
-            }
-
-        }
-        
-        
     }
 
     /*
@@ -316,53 +580,19 @@ public class BPICreditStatement extends CreditStatement {
     * << transactions to extract >>
     * S.I.P.BALANCESUMMARY
     * << installment transaction details >>
+    *
+    * See BPIStatementSections for the offsets of each part.
     */
-    private String extractTransactionsOnly() {
-        String delimiterRegex = "\\d{6}-\\d{1}-\\d{2}-\\d{7}-\\S*\\s";
-        Pattern p = Pattern.compile(delimiterRegex);
-        Matcher m = p.matcher(rawString);
-
-        if (m.find()) {
-            String intermediate = p.split(rawString)[1];
-
-            if (intermediate.contains("InstallmentAmortization:")){
-
-                return intermediate.split("InstallmentAmortization:")[1];
-
-            } else if (intermediate.contains("InstallmentPurchase")) {
-
-                Pattern inmt = Pattern.compile("\\(\\d{1,3}Mos.\\)(\\d{1,3},)*\\d{1,3}\\.\\d\\d");
-                Matcher inmtMatcher = inmt.matcher(intermediate);
-                
-                int startIndex = 0;
-                while (inmtMatcher.find()) {
-                    startIndex = inmtMatcher.end();
-                }
-
-                return intermediate.substring(startIndex);
-
-            } 
-
-            return intermediate;
-
-
-        } else if (rawString.contains("UnbilledInstallmentAmount")) {
-
-            Pattern lastLine = Pattern.compile("UnbilledInstallmentAmount(\\d{1,3},)*\\d{1,3}\\.\\d\\d");
-            Matcher lastLineMatcher = lastLine.matcher(rawString);
-
-            int lastIndex = 0;
-
-            while(lastLineMatcher.find()) {
-                lastIndex = lastLineMatcher.end();
-            }
-
-            if (lastIndex == rawString.length()) return "";
+    private BPIStatementSections getTransactionSections() {
+        return checkSections(getSections());
+    }
 
+    private static BPIStatementSections checkSections(BPIStatementSections found) {
+        if (!found.isValid()) {
+            throw new IllegalStateException("Cannot split rawText using delimiter. Check format update");
         }
 
-        throw new IllegalStateException("Cannot split rawText using delimiter. Check format update");
-
+        return found;
     }
 
     /**
@@ -374,21 +604,19 @@ public class BPICreditStatement extends CreditStatement {
 
         if (!rawString.contains("S.I.P.BALANCESUMMARY")) return;
 
-        String transactionsOnly = extractTransactionsOnly().split("S.I.P.BALANCESUMMARY")[1];
+        BPIStatementSections found = getTransactionSections();
 
-        if (!transactionsOnly.isEmpty()) {
-            String installmentRegex = "(\\d{6})(\\d{6})(.+\\D{2})((\\d{1,3},)*\\d{1,3}\\.\\d{2})((\\d{1,3},)*\\d{1,3}\\.\\d{2})";
-            Pattern p = Pattern.compile(installmentRegex);
-            Matcher matcher = p.matcher(transactionsOnly);
+        if (found.hasInstallmentDetails()) {
+            Matcher matcher = matcher(INSTALLMENT_DETAILS_PATTERN)
+                                .region(found.getInstallmentDetailsStart(), found.getInstallmentDetailsEnd());
 
             while (matcher.find()){
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMddyy");
-                LocalDate txnDate = LocalDate.parse(matcher.group(1), formatter);
-                LocalDate lastPaymentDate = LocalDate.parse(matcher.group(2), formatter);
+                LocalDate txnDate = DateParser.parseMMddyy(rawString, matcher.start(1), matcher.end(1));
+                LocalDate lastPaymentDate = DateParser.parseMMddyy(rawString, matcher.start(2), matcher.end(2));
                 String description = matcher.group(3);
-                double amount = parseAmount(matcher.group(4));
-                double bal = parseAmount(matcher.group(6));
-                AbstractTransaction txn = new InstallmentTransaction(txnDate, description, amount, lastPaymentDate, bal);
+                long amount = parseAmount(rawString, matcher, 4);
+                long bal = parseAmount(rawString, matcher, 6);
+                AbstractTransaction txn = InstallmentTransaction.ofCents(txnDate, description, amount, lastPaymentDate, bal);
                 installmentTxns.add(txn);
             }
 
@@ -405,12 +633,10 @@ public class BPICreditStatement extends CreditStatement {
      */
     public void extractUnbilledInstallment() {
 
-        String unbilledRegex = "UnbilledInstallmentAmount((\\d{1,3},)*\\d{1,3}\\.\\d\\d)";
-        Pattern p = Pattern.compile(unbilledRegex);
-        Matcher matcher = p.matcher(rawString);
+        Matcher matcher = findAtAnchor(UNBILLED_INSTALLMENT_PATTERN, UNBILLED_INSTALLMENT);
 
-        if (matcher.find()) {
-            unbilledInstallmentAmt = parseAmount(matcher.group(1));
+        if (matcher != null) {
+            unbilledInstallmentAmt = parseAmount(rawString, matcher, 1);
             return;
         }
 
@@ -0,0 +1,160 @@
+package kpes.finapp.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offsets of the sections of a BPI credit card statement text, found once so that the
+ * extract steps of {@link BPICreditStatement} work on ranges of the same text instead of
+ * splitting it again. The sections are in this order:
+ *
+ * <pre>
+ * &lt;&lt; header: statement dates and summary &gt;&gt;
+ * ######-#-##-#######-ACCOUNTHOLDERNAME
+ * &lt;&lt; installment purchases and amortizations, in some cases only &gt;&gt;
+ * &lt;&lt; transactions &gt;&gt;
+ * S.I.P.BALANCESUMMARY
+ * &lt;&lt; installment details &gt;&gt;
+ * </pre>
+ *
+ * The statement dates and the summary amounts are in the header, so they share one section.
+ * A section that is missing from the text is an empty range.
+ * @author Krizzia Santillan
+ */
+final class BPIStatementSections {
+
+    private static final Pattern DELIMITER = Pattern.compile("\\d{6}-\\d{1}-\\d{2}-\\d{7}-\\S*\\s");
+    private static final Pattern INSTALLMENT_MONTHS = Pattern.compile("\\(\\d{1,3}Mos.\\)(\\d{1,3},)*\\d{1,3}\\.\\d\\d");
+    private static final Pattern UNBILLED_INSTALLMENT = Pattern.compile("UnbilledInstallmentAmount(\\d{1,3},)*\\d{1,3}\\.\\d\\d");
+    private static final Pattern SIP_SUMMARY = Pattern.compile("S.I.P.BALANCESUMMARY");
+
+    private static final String AMORTIZATION = "InstallmentAmortization:";
+    private static final String PURCHASE = "InstallmentPurchase";
+
+    private final String text;
+
+    // false when the text has no account delimiter and does not end with the Unbilled Installment Amount
+    private final boolean valid;
+
+    private final int headerEnd;
+    private final int transactionsStart;
+    private final int transactionsEnd;
+    private final int sipSummaryEnd;
+    private final int installmentDetailsEnd;
+
+    private BPIStatementSections(String text, boolean valid, int headerEnd, int transactionsStart,
+                                    int transactionsEnd, int sipSummaryEnd, int installmentDetailsEnd) {
+        this.text = text;
+        this.valid = valid;
+        this.headerEnd = headerEnd;
+        this.transactionsStart = transactionsStart;
+        this.transactionsEnd = transactionsEnd;
+        this.sipSummaryEnd = sipSummaryEnd;
+        this.installmentDetailsEnd = installmentDetailsEnd;
+    }
+
+    /**
+     * Finds the sections of a statement text in one pass
+     * @param text - extracted statement text
+     * @return offsets of the sections
+     */
+    static BPIStatementSections of(String text) {
+        int length = text.length();
+        Matcher delimiter = DELIMITER.matcher(text);
+
+        if (!delimiter.find()) {
+            // no transactions at all, the text ends with the Unbilled Installment Amount
+            Matcher unbilled = UNBILLED_INSTALLMENT.matcher(text);
+            int lastEnd = -1;
+            while (unbilled.find()) lastEnd = unbilled.end();
+
+            return new BPIStatementSections(text, lastEnd == length, length, length, length, length, length);
+        }
+
+        int headerEnd = delimiter.start();
+        int start = delimiter.end();
+        int end = delimiter.find() ? delimiter.start() : length;
+
+        // skip the installment purchases and amortizations before the transactions
+        int amortization = indexOf(text, AMORTIZATION, start, end);
+        if (amortization >= 0) {
+            start = amortization + AMORTIZATION.length();
+            int next = indexOf(text, AMORTIZATION, start, end);
+            if (next >= 0) end = next;
+
+        } else if (indexOf(text, PURCHASE, start, end) >= 0) {
+            Matcher months = INSTALLMENT_MONTHS.matcher(text).region(start, end);
+            int lastEnd = start;
+            while (months.find()) lastEnd = months.end();
+            start = lastEnd;
+        }
+
+        // transactions end at the first S.I.P. heading, installment details at the next one
+        Matcher sip = SIP_SUMMARY.matcher(text).region(start, end);
+        if (!sip.find()) {
+            return new BPIStatementSections(text, true, headerEnd, start, end, end, end);
+        }
+
+        int transactionsEnd = sip.start();
+        int sipSummaryEnd = sip.end();
+        int installmentDetailsEnd = sip.find() ? sip.start() : end;
+
+        return new BPIStatementSections(text, true, headerEnd, start, transactionsEnd, sipSummaryEnd, installmentDetailsEnd);
+    }
+
+    private static int indexOf(String text, String keyword, int start, int end) {
+        int index = text.indexOf(keyword, start);
+        return index >= 0 && index + keyword.length() <= end ? index : -1;
+    }
+
+    /**
+     * @param text - text to compare
+     * @return true if these are the sections of {@code text} (the same instance, not only equal)
+     */
+    boolean isFor(String text) {
+        return this.text == text;
+    }
+
+    /**
+     * @return false if the text has no account delimiter and does not end with the Unbilled Installment Amount
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    int getHeaderEnd() {
+        return headerEnd;
+    }
+
+    int getTransactionsStart() {
+        return transactionsStart;
+    }
+
+    int getTransactionsEnd() {
+        return transactionsEnd;
+    }
+
+    boolean hasTransactions() {
+        return transactionsEnd > transactionsStart;
+    }
+
+    /**
+     * @return true if the transactions are followed by the S.I.P. balance summary
+     */
+    boolean hasSipSummary() {
+        return sipSummaryEnd > transactionsEnd;
+    }
+
+    int getInstallmentDetailsStart() {
+        return sipSummaryEnd;
+    }
+
+    int getInstallmentDetailsEnd() {
+        return installmentDetailsEnd;
+    }
+
+    boolean hasInstallmentDetails() {
+        return installmentDetailsEnd > sipSummaryEnd;
+    }
+
+}
@@ -6,8 +6,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.text.NumberFormat;
-import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -15,12 +13,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.ss.usermodel.Cell;
@@ -69,11 +68,27 @@ public class BankStatementParser {
     public static String extractText(Path filePath) {
         String text = "";
 
-        try {
-            PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(filePath));
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            pdfStripper.setSortByPosition(true);
-            text = pdfStripper.getText(document).trim();
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(filePath))) {
+            text = extractSortedText(document);
+        } catch (IOException e) {
+            text = "Invalid path";
+        }
+        
+        return text;
+    }
+
+    /**
+     * Same as {@link #extractText(Path)}, but the file is memory mapped instead of read through
+     * a buffer, and the heap used for loading the document is limited by {@code memoryUsage}
+     * @param filePath instance of path that points to the PDF document
+     * @param memoryUsage heap and scratch file budget for the document (i.e. {@code MemoryUsageSetting.setupMixed(16 * 1024 * 1024)})
+     * @return String text of the PDF document
+     */
+    public static String extractText(Path filePath, MemoryUsageSetting memoryUsage) {
+        String text = "";
+
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadMemoryMappedFile(filePath), "", memoryUsage.streamCache)) {
+            text = extractSortedText(document);
         } catch (IOException e) {
             text = "Invalid path";
         }
@@ -81,6 +96,12 @@ public class BankStatementParser {
         return text;
     }
 
+    private static String extractSortedText(PDDocument document) throws IOException {
+        PDFTextStripper pdfStripper = new PDFTextStripper();
+        pdfStripper.setSortByPosition(true);
+        return pdfStripper.getText(document).trim();
+    }
+
     /**
      * To get the statement date of the bank statement
      * @param fullText non-empty String that comes from using {@link #extractText(Path)}
@@ -380,16 +401,9 @@ public class BankStatementParser {
         while (matcher.find()){
             String desc = matcher.group(1);
 
-             try {
-                NumberFormat format = NumberFormat.getInstance(Locale.US);
-                Number parsedAmount = format.parse(matcher.group(2));
-                float amount = parsedAmount.floatValue();
-                OldBankTransaction txn = new OldBankTransaction(desc, amount);
-                summary.add(txn);
-
-            } catch (ParseException e) {
-                e.printStackTrace();
-            }
+            long amount = AmountParser.parseCents(summaryData, matcher.start(2), matcher.end(2));
+            OldBankTransaction txn = OldBankTransaction.ofCents(desc, amount);
+            summary.add(txn);
         }
 
         if (summary.isEmpty()) {
@@ -419,16 +433,9 @@ public class BankStatementParser {
         while (matcher.find()){
             String desc = matcher.group(1);
 
-             try {
-                NumberFormat format = NumberFormat.getInstance(Locale.US);
-                Number parsedAmount = format.parse(matcher.group(3));
-                float amount = parsedAmount.floatValue();
-                OldBankTransaction txn = new OldBankTransaction(desc, amount);
-                details.add(txn);
-
-            } catch (ParseException e) {
-                e.printStackTrace();
-            }
+            long amount = AmountParser.parseCents(parts[0], matcher.start(3), matcher.end(3));
+            OldBankTransaction txn = OldBankTransaction.ofCents(desc, amount);
+            details.add(txn);
         }
 
         if (details.isEmpty()) {
@@ -536,7 +543,7 @@ public class BankStatementParser {
         // total txn amount
         Row totalRow = sheet.createRow(currentRow++);
         totalRow.createCell(0).setCellValue("Total Amount of Transactions");
-        totalRow.createCell(1).setCellValue(bs.getTotalTxnAmount());
+        totalRow.createCell(1).setCellValue(Money.toDouble(bs.getTotalTxnAmountCents()));
         totalRow.getCell(0).setCellStyle(generalStyle);
         totalRow.getCell(1).setCellStyle(generalStyle);
 
@@ -545,7 +552,7 @@ public class BankStatementParser {
         for (OldBankTransaction txn: bs.getSummary()) {
             Row summaryRow = sheet.createRow(currentRow++);
             summaryRow.createCell(0).setCellValue(txn.getDescription());
-            summaryRow.createCell(1).setCellValue(txn.getAmount());
+            summaryRow.createCell(1).setCellValue(Money.toDouble(txn.getAmountCents()));
             summaryRow.getCell(0).setCellStyle(generalStyle);
             summaryRow.getCell(1).setCellStyle(generalStyle);
 
@@ -572,7 +579,7 @@ public class BankStatementParser {
         for (OldBankTransaction txn: transactions) {
             Row summaryRow = sheet.createRow(currentRow++);
             summaryRow.createCell(0).setCellValue(txn.getDescription());
-            summaryRow.createCell(1).setCellValue(txn.getAmount());
+            summaryRow.createCell(1).setCellValue(Money.toDouble(txn.getAmountCents()));
             summaryRow.getCell(0).setCellStyle(style);
             summaryRow.getCell(1).setCellStyle(style);
 
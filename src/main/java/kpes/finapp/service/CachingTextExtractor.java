@@ -0,0 +1,285 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link TextExtractor} that keeps the text extracted by another extractor, so a file that
+ * was already extracted is not read by PDFBox again (i.e. when a batch of old statements is
+ * parsed again after a parser fix). Issued statements never change, so the text is kept
+ * until it is evicted.
+ *
+ * The text is looked up by the SHA-256 of the file content, the settings of the wrapped
+ * extractor and the credentials, so a renamed or copied file is still found, while a
+ * different setting (i.e. {@code stripSpaces}) or a wrong password is never served from the
+ * cache. Texts are kept in a small in-memory LRU in front of a directory on disk that is
+ * bounded in bytes, where the least recently used texts are removed first.
+ *
+ * The texts in the cache directory are not encrypted, even for encrypted statements, so the
+ * directory must be as private as the statements themselves.
+ *
+ * Safe to call concurrently if the wrapped extractor is (see {@link StatementBatchProcessor}).
+ * @author Krizzia Santillan
+ */
+public class CachingTextExtractor implements TextExtractor<Path, String> {
+
+    private static final String SUFFIX = ".txt";
+
+    private final TextExtractor<Path, String> extractor;
+    private final Supplier<String> settings;
+    private final Path directory;
+    private final long maxDiskBytes;
+
+    // in-memory front, in access order
+    private final Map<String, String> memory;
+
+    // total size of the texts in directory, found once and then added up on every write, see evict
+    private long diskBytes;
+
+    /**
+     * Caches the text of a {@link PDFBoxExtractor}, its settings are read on every call
+     * @param extractor - extractor that reads the files that are not in the cache
+     * @param directory - where the texts are stored, created if it does not exist
+     * @param maxDiskBytes - maximum total size of the texts in {@code directory}
+     * @param maxMemoryEntries - number of texts also kept in memory
+     * @throws IOException if the directory cannot be created
+     */
+    public CachingTextExtractor(PDFBoxExtractor extractor, Path directory, long maxDiskBytes, int maxMemoryEntries) throws IOException {
+        this(extractor, extractor::getSettings, directory, maxDiskBytes, maxMemoryEntries);
+    }
+
+    /**
+     * @param extractor - extractor that reads the files that are not in the cache
+     * @param settings - describes the settings of {@code extractor} that change its output,
+     *                   texts extracted with other settings are not used
+     * @param directory - where the texts are stored, created if it does not exist
+     * @param maxDiskBytes - maximum total size of the texts in {@code directory}
+     * @param maxMemoryEntries - number of texts also kept in memory
+     * @throws IOException if the directory cannot be created
+     */
+    public CachingTextExtractor(TextExtractor<Path, String> extractor, Supplier<String> settings, Path directory,
+                                    long maxDiskBytes, int maxMemoryEntries) throws IOException {
+        if (maxDiskBytes < 0) throw new IllegalArgumentException("Cache size must not be negative");
+        if (maxMemoryEntries < 0) throw new IllegalArgumentException("Number of entries in memory must not be negative");
+
+        this.extractor = extractor;
+        this.settings = settings;
+        this.directory = Files.createDirectories(directory);
+        this.maxDiskBytes = maxDiskBytes;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+
+        long total = 0;
+        for (CacheFile entry : scanCacheFiles()) total += entry.size;
+        this.diskBytes = total;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxDiskBytes() {
+        return maxDiskBytes;
+    }
+
+    /**
+     * Returns the cached text of the file, or extracts it with the wrapped extractor and
+     * caches it
+     * @param forExtraction Path pointing to the file
+     * @param credentials to use for opening encrypted files
+     * @return text extracted from the file
+     * @throws IOException if there is a problem in accessing the file or the cache directory
+     */
+    @Override
+    public String extractText(Path forExtraction, String credentials) throws IOException {
+
+        String key = key(forExtraction, credentials);
+
+        String text = getFromMemory(key);
+        if (text != null) return text;
+
+        text = readFromDisk(key);
+        if (text == null) {
+            text = extractor.extractText(forExtraction, credentials);
+            writeToDisk(key, text);
+        }
+
+        putInMemory(key, text);
+        return text;
+
+    }
+
+    /**
+     * Passes the preview on to the wrapped extractor. Previews are not cached, and the
+     * cache is not looked up for them, so a file is only hashed once per load (by
+     * {@link #extractText(Path, String)}).
+     * @param forExtraction Path pointing to the file
+     * @param credentials to use for opening encrypted files
+     * @return the beginning of the text, or null if the wrapped extractor does not preview
+     * @throws IOException if there is a problem in accessing the file
+     */
+    @Override
+    public String probeText(Path forExtraction, String credentials) throws IOException {
+        return extractor.probeText(forExtraction, credentials);
+    }
+
+    /**
+     * Removes all texts from memory and from the cache directory
+     * @throws IOException if a text cannot be deleted
+     */
+    public void clear() throws IOException {
+        synchronized (memory) {
+            memory.clear();
+        }
+
+        synchronized (this) {
+            for (Path file : listCacheFiles()) {
+                Files.deleteIfExists(file);
+            }
+            diskBytes = 0;
+        }
+    }
+
+    /**
+     * @return total size of the texts in the cache directory, as counted by this instance
+     */
+    synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    /* SHA-256 of the file content, the settings and the credentials, see ContentHash */
+    String key(Path file, String credentials) throws IOException {
+        return ContentHash.of(file, settings.get(), credentials);
+    }
+
+    private String getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void putInMemory(String key, String text) {
+        synchronized (memory) {
+            memory.put(key, text);
+        }
+    }
+
+    /* Returns null if the text is not on disk, or if it was evicted while being read */
+    private String readFromDisk(String key) throws IOException {
+        Path file = directory.resolve(key + SUFFIX);
+
+        try {
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            // the modified time is the last access time, for eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return text;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /*
+    * Writes to a temporary file first and then moves it, so a text is never read while
+    * it is only partly written. Evicts the least recently used texts after that.
+    */
+    private void writeToDisk(String key, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxDiskBytes) return;
+
+        Path target = directory.resolve(key + SUFFIX);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        long replaced;
+        try {
+            Files.write(temp, bytes);
+            // the same text written by another thread, only the difference is added
+            replaced = sizeOf(target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        evict(bytes.length - replaced);
+    }
+
+    /*
+    * Adds to the running total and only lists the directory when the total is over the
+    * limit. The listing also corrects the total, i.e. for texts written or removed by
+    * another instance using the same directory.
+    */
+    private synchronized void evict(long added) throws IOException {
+        diskBytes += added;
+        if (diskBytes <= maxDiskBytes) return;
+
+        List<CacheFile> files = scanCacheFiles();
+        long total = 0;
+        for (CacheFile entry : files) total += entry.size;
+
+        files.sort(Comparator.comparing((CacheFile entry) -> entry.lastUsed));
+        for (CacheFile entry : files) {
+            if (total <= maxDiskBytes) break;
+            Files.deleteIfExists(entry.file);
+            total -= entry.size;
+        }
+
+        diskBytes = total;
+    }
+
+    private List<CacheFile> scanCacheFiles() throws IOException {
+        List<CacheFile> files = new ArrayList<>();
+        for (Path file : listCacheFiles()) {
+            try {
+                files.add(new CacheFile(file, Files.size(file), Files.getLastModifiedTime(file)));
+            } catch (NoSuchFileException e) {
+                // removed by another instance using the same directory
+            }
+        }
+        return files;
+    }
+
+    private static long sizeOf(Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private List<Path> listCacheFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                            .collect(Collectors.toList());
+        }
+    }
+
+    private static final class CacheFile {
+
+        private final Path file;
+        private final long size;
+        private final FileTime lastUsed;
+
+        CacheFile(Path file, long size, FileTime lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 keys for the caches of extracted text and parsed statements. The key covers the
+ * content of the file, not its name, so a renamed or copied statement has the same key.
+ * @author Krizzia Santillan
+ */
+final class ContentHash {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHash() {
+    }
+
+    /**
+     * SHA-256 of the file content followed by each part, each one ended with a 0 byte so
+     * that different splits of the same chars give different keys
+     * @param file - file to hash
+     * @param parts - other values the key depends on (i.e. settings, credentials), null is allowed
+     * @return the hash in lowercase hex
+     * @throws IOException if the file cannot be read
+     */
+    static String of(Path file, String... parts) throws IOException {
+        MessageDigest digest = sha256();
+
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) > 0) digest.update(buffer, 0, read);
+        }
+
+        for (String part : parts) {
+            digest.update((byte) 0);
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
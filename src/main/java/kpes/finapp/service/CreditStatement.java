@@ -1,6 +1,9 @@
 package kpes.finapp.service;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.Map;
 
 /**
  * Base class for credit card statements
@@ -8,14 +11,26 @@ import java.time.LocalDate;
  */
 public abstract class CreditStatement extends AbstractStatement {
 
+    /* Region names of a fixed layout, see parseSummaryRegions */
+
+    // read by every step that has no region of its own
+    public static final String SUMMARY_REGION = "summary";
+    public static final String STATEMENT_DATE_REGION = "statementDate";
+    public static final String DUE_DATE_REGION = "dueDate";
+    public static final String MIN_AMOUNT_DUE_REGION = "minAmountDue";
+    public static final String PREVIOUS_BALANCE_REGION = "previousBalance";
+    // read by both extractTotalCredits and extractTotalDebits
+    public static final String TOTALS_REGION = "totals";
+    public static final String TOTAL_AMOUNT_DUE_REGION = "totalAmountDue";
+
     /* Fields */
 
     // date fields
     protected LocalDate statementDate;
     protected LocalDate dueDate;
     
-    // other new fields
-    protected double minAmountDue;
+    // other new fields, in minor units (centavos)
+    protected long minAmountDue;
 
     /**
      * Constructor initializing field values
@@ -38,6 +53,10 @@ public abstract class CreditStatement extends AbstractStatement {
     }
 
     public double getMinAmountDue() {
+        return Money.toDouble(minAmountDue);
+    }
+
+    public long getMinAmountDueCents() {
         return minAmountDue;
     }
 
@@ -76,6 +95,121 @@ public abstract class CreditStatement extends AbstractStatement {
 
     }
 
+    /**
+     * Parses only the dates, the minimum amount due and the summary from the text of the
+     * regions of a fixed layout (see {@link PDFBoxExtractor#extractRegions}), so the whole
+     * statement is not extracted and scanned for a few fields. Each step reads the text of
+     * its own region, or of {@link #SUMMARY_REGION} when the step has no region.
+     * The transactions are not extracted, so the parsed status is not changed, and
+     * {@link #rawString} is kept as it was.
+     * @param regions - text of each region by name
+     * @throws IllegalArgumentException when a step has neither its own region nor {@link #SUMMARY_REGION}
+     * @throws IllegalStateException when a field is not found in its region
+     * @throws AssertionError when the summary does not balance
+     */
+    public void parseSummaryRegions(Map<String, String> regions) {
+        String[] names = { STATEMENT_DATE_REGION, DUE_DATE_REGION, MIN_AMOUNT_DUE_REGION, PREVIOUS_BALANCE_REGION,
+                            TOTALS_REGION, TOTAL_AMOUNT_DUE_REGION };
+        for (String name : names) {
+            if (!regions.containsKey(name) && !regions.containsKey(SUMMARY_REGION)) {
+                throw new IllegalArgumentException("No region for " + name);
+            }
+        }
+
+        String text = rawString;
+        try {
+            parseRegion(regions, STATEMENT_DATE_REGION, this::extractStatementDate);
+            parseRegion(regions, DUE_DATE_REGION, this::extractDueDate);
+            parseRegion(regions, MIN_AMOUNT_DUE_REGION, this::extractMinAmtDue);
+            parseRegion(regions, PREVIOUS_BALANCE_REGION, this::extractPreviousBalance);
+            parseRegion(regions, TOTALS_REGION, () -> {
+                extractTotalCredits();
+                extractTotalDebits();
+            });
+            parseRegion(regions, TOTAL_AMOUNT_DUE_REGION, this::extractTotalAmountDue);
+        } finally {
+            rawString = text;
+        }
+
+        if (!isBalanced()) {
+            clearFields();
+            throw new AssertionError("Bank Statement has erroneous data");
+        }
+    }
+
+    /**
+     * Summary-only mode for views that only need what is owed (i.e. a dashboard). Parses only
+     * the statement date, due date, minimum amount due and total amount due from the
+     * {@link #rawString}. The rest of the summary and the transactions are not extracted
+     * and nothing is validated, so the parsed status is not changed.
+     * @throws IllegalStateException when a field is not found
+     */
+    public void parseSummaryOnly() {
+        preprocessRawText();
+
+        extractStatementDate();
+        extractDueDate();
+        extractMinAmtDue();
+        extractTotalAmountDue();
+    }
+
+    /**
+     * Summary-only mode from a file. The pages are streamed from {@code extractor} and the
+     * extraction stops after the first page where {@link #parseSummaryOnly()} finds all of
+     * its fields, so the transaction and other pages after the summary are never extracted.
+     * Use an extractor without a page filter, since the filter reads every page first.
+     * @param path - path to the Bank Statement PDF file
+     * @param extractor - {@link StreamingTextExtractor} implementation (i.e. {@link PDFBoxExtractor})
+     * @param pw - password for decrypting encrypted Bank Statement PDF file
+     * @throws IOException if the extractor cannot read or decrypt the file
+     * @throws IllegalArgumentException if the file does not exist, is not a PDF file or is not a Bank Statement
+     * @throws IllegalStateException when a field is not found in any page
+     */
+    public void loadSummary(Path path, StreamingTextExtractor<Path, String> extractor, String pw) throws IOException {
+        checkPdfFile(path);
+
+        String previous = rawString;
+        SummaryPages pages = new SummaryPages();
+        try {
+            extractor.extractText(path, pw, pages);
+            if (!pattern.matcher(pages.text).find()) throw new IllegalArgumentException("File is not a Bank Statement");
+            if (!pages.found) throw pages.missing != null ? pages.missing : new IllegalStateException("File has no pages");
+        } catch (RuntimeException | IOException e) {
+            rawString = previous;
+            throw e;
+        }
+    }
+
+    /* Adds each page to the text and tries the summary on the text so far, stops once it is found */
+    private class SummaryPages implements PageTextConsumer {
+
+        private final StringBuilder text = new StringBuilder();
+        private boolean found;
+        private IllegalStateException missing;
+
+        @Override
+        public boolean acceptPage(int pageNumber, CharSequence pageText) {
+            text.append(pageText);
+            rawString = text.toString();
+            try {
+                parseSummaryOnly();
+                found = true;
+                return false;
+            } catch (IllegalStateException e) {
+                missing = e;
+                return true;
+            }
+        }
+
+    }
+
+    /* Runs the extract steps on the text of one region, as if it was the whole raw text */
+    private void parseRegion(Map<String, String> regions, String name, Runnable steps) {
+        rawString = regions.containsKey(name) ? regions.get(name) : regions.get(SUMMARY_REGION);
+        preprocessRawText();
+        steps.run();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -89,9 +223,10 @@ public abstract class CreditStatement extends AbstractStatement {
      */
     @Override
     protected boolean isTransactionComplete() {
-        double totalTransactions = transactions.stream()
-                                                .mapToDouble(AbstractTransaction::getAmount)
-                                                .sum();
+        long totalTransactions = 0;
+        for (AbstractTransaction txn : transactions) {
+            totalTransactions += txn.getAmountCents();
+        }
 
         return totalTransactions == totalCredits - totalDebits;
     }
@@ -17,13 +17,38 @@ public class CreditTransaction extends AbstractTransaction {
 
     }
 
+    private CreditTransaction(LocalDate transactionDate, 
+                                    String description,
+                                    long amountCents,
+                                    LocalDate postDate) {
+
+        super(transactionDate, description, amountCents);
+        this.postDate = postDate;
+
+    }
+
+    /**
+     * Creates a transaction with an amount that is already in minor units (centavos)
+     * @param transactionDate - date of the transaction
+     * @param description - description of the transaction
+     * @param amountCents - amount in centavos, i.e. 123456 for 1,234.56
+     * @param postDate - date the transaction was posted
+     * @return new transaction
+     */
+    public static CreditTransaction ofCents(LocalDate transactionDate, 
+                                    String description,
+                                    long amountCents,
+                                    LocalDate postDate) {
+        return new CreditTransaction(transactionDate, description, amountCents, postDate);
+    }
+
     public LocalDate getPostDate() {
         return postDate;
     }
 
     @Override
     public String toString() {
-        return String.format("%tD | %tD - %s - %,.2f", transactionDate, postDate, description, amount);
+        return String.format("%tD | %tD - %s - %,.2f", transactionDate, postDate, description, Money.toDecimal(amount));
     }
 
     //TODO fix equals
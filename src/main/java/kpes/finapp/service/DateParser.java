@@ -0,0 +1,156 @@
+package kpes.finapp.service;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the dates found in bank statements straight from a region of the extracted text,
+ * without creating substrings or formatters. Month names are matched with a trie over the
+ * English month names, case insensitive, so both "JANUARY" and "January" are accepted.
+ *
+ * Like {@code DateTimeFormatter} with the default (SMART) resolver, a day that is past the
+ * end of the month (i.e. February 30) is moved to the last day of the month, while a day
+ * outside 1 to 31 or a month outside 1 to 12 is an error.
+ * @author Krizzia Santillan
+ */
+public final class DateParser {
+
+    private static final int LETTERS = 26;
+
+    // children[node * LETTERS + letter] = next node, 0 if none
+    private static final int[] children;
+
+    // month number (1 to 12) of a node that completes a month name, 0 otherwise
+    private static final int[] months;
+
+    static {
+        int nodeCount = 1;
+        for (Month month : Month.values()) nodeCount += month.name().length();
+
+        int[] trie = new int[nodeCount * LETTERS];
+        int[] ends = new int[nodeCount];
+        int used = 1;
+
+        for (Month month : Month.values()) {
+            int node = 0;
+            for (char ch : month.name().toCharArray()) {
+                int next = trie[node * LETTERS + ch - 'A'];
+                if (next == 0) {
+                    next = used++;
+                    trie[node * LETTERS + ch - 'A'] = next;
+                }
+                node = next;
+            }
+            ends[node] = month.getValue();
+        }
+
+        children = trie;
+        months = ends;
+    }
+
+    private DateParser() {
+    }
+
+    /**
+     * Parses a month name followed by the day, i.e. "January5" or "FEBRUARY04"
+     * @param text - text that contains the date
+     * @param start - offset of the first char of the month name
+     * @param end - offset after the last digit of the day
+     * @param year - year of the date, since it is not part of the text
+     * @return the parsed date
+     * @throws DateTimeParseException if the region is not a valid date
+     */
+    public static LocalDate parseMonthDay(CharSequence text, int start, int end, int year) {
+        int monthDay = parseMonthAndDay(text, start, end, start, end);
+        return toDate(year, monthDay / 100, monthDay % 100, text, start, end);
+    }
+
+    /**
+     * Parses a month name followed by the day and the year, i.e. "January5,2025" or "FEBRUARY04,2025"
+     * @param text - text that contains the date
+     * @param start - offset of the first char of the month name
+     * @param end - offset after the last digit of the 4 digit year
+     * @return the parsed date
+     * @throws DateTimeParseException if the region is not a valid date
+     */
+    public static LocalDate parseMonthDayYear(CharSequence text, int start, int end) {
+        int comma = end - 5;
+        if (comma <= start || text.charAt(comma) != ',') throw error(text, start, end, Math.max(start, comma));
+
+        int monthDay = parseMonthAndDay(text, start, comma, start, end);
+        int year = parseDigits(text, comma + 1, end, start, end);
+        return toDate(year, monthDay / 100, monthDay % 100, text, start, end);
+    }
+
+    /**
+     * Parses a date in MMddyy format, i.e. "120524" for December 5, 2024.
+     * Two digit years are in 2000 to 2099.
+     * @param text - text that contains the date
+     * @param start - offset of the first digit
+     * @param end - offset after the last digit, 6 chars after {@code start}
+     * @return the parsed date
+     * @throws DateTimeParseException if the region is not a valid date
+     */
+    public static LocalDate parseMMddyy(CharSequence text, int start, int end) {
+        if (end - start != 6) throw error(text, start, end, start);
+
+        int month = parseDigits(text, start, start + 2, start, end);
+        int day = parseDigits(text, start + 2, start + 4, start, end);
+        int year = 2000 + parseDigits(text, start + 4, end, start, end);
+        return toDate(year, month, day, text, start, end);
+    }
+
+    /*
+    * Parses "<month name><1 or 2 digit day>" from "from" to "to", returns month * 100 + day.
+    * start and end are the bounds of the whole date, for the error message.
+    */
+    private static int parseMonthAndDay(CharSequence text, int from, int to, int start, int end) {
+        int node = 0;
+        int i = from;
+
+        while (i < to && isLetter(text.charAt(i))) {
+            int letter = (text.charAt(i) & ~0x20) - 'A';
+            node = children[node * LETTERS + letter];
+            if (node == 0) throw error(text, start, end, i);
+            i++;
+        }
+
+        int month = months[node];
+        if (month == 0 || to - i < 1 || to - i > 2) throw error(text, start, end, i);
+
+        return month * 100 + parseDigits(text, i, to, start, end);
+    }
+
+    private static int parseDigits(CharSequence text, int from, int to, int start, int end) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char ch = text.charAt(i);
+            if (!isDigit(ch)) throw error(text, start, end, i);
+            value = value * 10 + ch - '0';
+        }
+        return value;
+    }
+
+    private static LocalDate toDate(int year, int month, int day, CharSequence text, int start, int end) {
+        if (month < 1 || month > 12 || day < 1 || day > 31) throw error(text, start, end, start);
+
+        int lastDay = Month.of(month).length(Year.isLeap(year));
+        return LocalDate.of(year, month, Math.min(day, lastDay));
+    }
+
+    private static boolean isLetter(char ch) {
+        return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z');
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static DateTimeParseException error(CharSequence text, int start, int end, int index) {
+        return new DateTimeParseException("Text '" + text.subSequence(start, end) + "' could not be parsed at index " + (index - start),
+                                            text.subSequence(start, end), index - start);
+    }
+
+}
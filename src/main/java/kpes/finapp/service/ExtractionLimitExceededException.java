@@ -0,0 +1,34 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a document is over one of its {@link ExtractionLimits}
+ * @author Krizzia Santillan
+ */
+public class ExtractionLimitExceededException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Limit that a document went over
+     */
+    public enum Limit {
+        PAGES,
+        BYTES,
+        CHARACTERS,
+        TIMEOUT
+    }
+
+    private final Limit limit;
+
+    public ExtractionLimitExceededException(Limit limit, String message) {
+        super(message);
+        this.limit = limit;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+
+}
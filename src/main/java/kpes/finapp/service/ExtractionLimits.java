@@ -0,0 +1,170 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kpes.finapp.service.ExtractionLimitExceededException.Limit;
+
+/**
+ * Per-document limits for {@link PDFBoxExtractor#setLimits(ExtractionLimits)}, so that one
+ * malformed or very large PDF fails with an {@link ExtractionLimitExceededException} instead
+ * of holding a worker thread for as long as PDFBox takes to get through it.
+ *
+ * The size and the number of pages are checked before any text is extracted. The time and
+ * the number of extracted characters are checked while the pages are processed: the time
+ * between pages, the characters as they are written. An interrupted thread also stops
+ * between pages. Limits are immutable, each {@code with} method returns a copy.
+ * @author Krizzia Santillan
+ */
+public final class ExtractionLimits {
+
+    /**
+     * No limits, the default
+     */
+    public static final ExtractionLimits NONE = new ExtractionLimits(0, 0, 0, null);
+
+    // 0 (or null) for no limit
+    private final int maxPages;
+    private final long maxBytes;
+    private final long maxChars;
+    private final Duration timeout;
+
+    private ExtractionLimits(int maxPages, long maxBytes, long maxChars, Duration timeout) {
+        this.maxPages = maxPages;
+        this.maxBytes = maxBytes;
+        this.maxChars = maxChars;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param maxPages - most pages a document may have
+     * @return copy of these limits with the page limit
+     */
+    public ExtractionLimits withMaxPages(int maxPages) {
+        if (maxPages < 1) throw new IllegalArgumentException("Max pages must be at least 1");
+        return new ExtractionLimits(maxPages, maxBytes, maxChars, timeout);
+    }
+
+    /**
+     * @param maxBytes - largest size of a document in bytes
+     * @return copy of these limits with the size limit
+     */
+    public ExtractionLimits withMaxBytes(long maxBytes) {
+        if (maxBytes < 1) throw new IllegalArgumentException("Max bytes must be at least 1");
+        return new ExtractionLimits(maxPages, maxBytes, maxChars, timeout);
+    }
+
+    /**
+     * @param maxChars - most characters of text extracted from a document
+     * @return copy of these limits with the text limit
+     */
+    public ExtractionLimits withMaxChars(long maxChars) {
+        if (maxChars < 1) throw new IllegalArgumentException("Max characters must be at least 1");
+        return new ExtractionLimits(maxPages, maxBytes, maxChars, timeout);
+    }
+
+    /**
+     * @param timeout - longest time the extraction of a document may take, from the start of the call
+     * @return copy of these limits with the time limit
+     */
+    public ExtractionLimits withTimeout(Duration timeout) {
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) throw new IllegalArgumentException("Timeout must be positive");
+        return new ExtractionLimits(maxPages, maxBytes, maxChars, timeout);
+    }
+
+    /**
+     * @return most pages a document may have, 0 for no limit
+     */
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    /**
+     * @return largest size of a document in bytes, 0 for no limit
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return most characters extracted from a document, 0 for no limit
+     */
+    public long getMaxChars() {
+        return maxChars;
+    }
+
+    /**
+     * @return longest time an extraction may take, null for no limit
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    void checkBytes(long bytes) throws ExtractionLimitExceededException {
+        if (maxBytes > 0 && bytes > maxBytes) {
+            throw new ExtractionLimitExceededException(Limit.BYTES, "Document has " + bytes + " bytes, limit is " + maxBytes);
+        }
+    }
+
+    void checkPages(int pages) throws ExtractionLimitExceededException {
+        if (maxPages > 0 && pages > maxPages) {
+            throw new ExtractionLimitExceededException(Limit.PAGES, "Document has " + pages + " pages, limit is " + maxPages);
+        }
+    }
+
+    /**
+     * Starts the clock for one extraction
+     * @return budget to check while the pages are processed
+     */
+    Budget start() {
+        return new Budget(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExtractionLimits[maxPages=%d, maxBytes=%d, maxChars=%d, timeout=%s]", maxPages, maxBytes, maxChars, timeout);
+    }
+
+    /**
+     * Time and characters left for one extraction. Shared by the page range tasks of a
+     * parallel extraction, so the characters are counted atomically.
+     */
+    static final class Budget {
+
+        private final ExtractionLimits limits;
+        private final long deadline;
+        private final AtomicLong chars = new AtomicLong();
+
+        private Budget(ExtractionLimits limits) {
+            this.limits = limits;
+            this.deadline = limits.timeout == null ? 0 : System.nanoTime() + limits.timeout.toNanos();
+        }
+
+        /**
+         * Called before each page
+         * @throws ExtractionLimitExceededException if the time is up
+         * @throws InterruptedIOException if the thread is interrupted (i.e. the batch was cancelled)
+         */
+        void checkPage() throws IOException {
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Extraction was interrupted");
+            if (limits.timeout != null && System.nanoTime() - deadline > 0) {
+                throw new ExtractionLimitExceededException(Limit.TIMEOUT, "Extraction took longer than " + limits.timeout);
+            }
+        }
+
+        /**
+         * Called as the text is written
+         * @param count - number of characters written
+         * @throws ExtractionLimitExceededException if too many characters are extracted
+         */
+        void addChars(int count) throws ExtractionLimitExceededException {
+            if (limits.maxChars > 0 && chars.addAndGet(count) > limits.maxChars) {
+                throw new ExtractionLimitExceededException(Limit.CHARACTERS, "Extracted text is longer than " + limits.maxChars + " characters");
+            }
+        }
+
+    }
+
+}
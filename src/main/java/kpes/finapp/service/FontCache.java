@@ -0,0 +1,251 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.DefaultResourceCache;
+import org.apache.pdfbox.pdmodel.ResourceCache;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+/**
+ * Keeps the fonts of extracted documents, so the next statement of the same bank that
+ * embeds the same fonts uses the fonts that are already parsed instead of parsing the
+ * embedded font programs and ToUnicode maps again (see {@link PDFBoxExtractor#setFontCache(FontCache)}).
+ *
+ * A font is looked up by a SHA-256 of its whole font dictionary, with the streams it
+ * refers to (font program, ToUnicode) included as their raw bytes, so only a font with
+ * exactly the same definition is reused. Type 3 fonts read their glyphs from the
+ * document while the text is extracted, so they are never kept.
+ *
+ * PDFBox fonts are not thread safe, so every thread has its own fonts, bounded by
+ * {@code maxFontsPerThread} with the least recently used ones removed first. One cache
+ * can be shared by all extractors and workers of the process.
+ *
+ * A kept font still refers to the font dictionary and streams of the document it was
+ * parsed from, which are backed by the source of that document. So each thread keeps the
+ * source of up to {@code maxFontsPerThread} closed documents reachable, i.e. the whole
+ * bytes of a file extracted in parallel, until their fonts are removed. The font program
+ * and the ToUnicode map are parsed when the font is created, so a kept font does not read
+ * those streams again, also when the source was a memory mapped file that is unmapped.
+ * @author Krizzia Santillan
+ */
+public class FontCache {
+
+    // deeper font dictionaries are not kept
+    private static final int MAX_DEPTH = 16;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final int maxFontsPerThread;
+    private final ThreadLocal<Map<String, PDFont>> fonts;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxFontsPerThread - number of fonts kept by each thread
+     */
+    public FontCache(int maxFontsPerThread) {
+        if (maxFontsPerThread < 1) throw new IllegalArgumentException("Number of fonts must be at least 1");
+
+        this.maxFontsPerThread = maxFontsPerThread;
+        this.fonts = ThreadLocal.withInitial(() -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PDFont> eldest) {
+                return size() > FontCache.this.maxFontsPerThread;
+            }
+        });
+    }
+
+    public int getMaxFontsPerThread() {
+        return maxFontsPerThread;
+    }
+
+    /**
+     * @return number of fonts that were taken from the cache instead of being parsed
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of fonts that were parsed since they were not in the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Resource cache for one document, to be used only by the thread that extracts it
+     * @return cache to set with {@code PDDocument.setResourceCache}
+     */
+    ResourceCache forDocument() {
+        return new DocumentCache();
+    }
+
+    /*
+    * Caches the other resources for the document only, like DefaultResourceCache, and
+    * looks up the fonts that are not cached yet in the fonts of the thread
+    */
+    private class DocumentCache extends DefaultResourceCache {
+
+        // fingerprint of each font object, found once per document
+        private final Map<COSObject, String> keys = new IdentityHashMap<>();
+
+        @Override
+        public PDFont getFont(COSObject indirect) {
+            PDFont font = super.getFont(indirect);
+            if (font != null) return font;
+
+            String key = keyOf(indirect);
+            font = key == null ? null : fonts.get().get(key);
+            if (font != null) {
+                hits.increment();
+                super.put(indirect, font);
+            }
+            return font;
+        }
+
+        @Override
+        public void put(COSObject indirect, PDFont font) {
+            super.put(indirect, font);
+
+            String key = keyOf(indirect);
+            if (key == null || COSName.TYPE3.equals(font.getCOSObject().getCOSName(COSName.SUBTYPE))) return;
+
+            misses.increment();
+            fonts.get().put(key, font);
+        }
+
+        private String keyOf(COSObject indirect) {
+            return keys.computeIfAbsent(indirect, k -> fingerprint(k.getObject()));
+        }
+
+    }
+
+    /**
+     * SHA-256 of a font dictionary and of everything it refers to. Dictionary keys are
+     * hashed in sorted order and streams by their raw bytes.
+     * @param font - font dictionary
+     * @return the hash in lowercase hex, null if the font cannot be hashed (i.e. a
+     *         stream cannot be read or the dictionary is too deep)
+     */
+    static String fingerprint(COSBase font) {
+        MessageDigest digest = sha256();
+        try {
+            if (!update(digest, font, 0, Collections.newSetFromMap(new IdentityHashMap<>()))) return null;
+        } catch (IOException e) {
+            return null;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean update(MessageDigest digest, COSBase value, int depth, Set<COSBase> visiting) throws IOException {
+        if (depth > MAX_DEPTH) return false;
+        if (value instanceof COSObject) value = ((COSObject) value).getObject();
+
+        if (value == null) {
+            digest.update((byte) 'z');
+        } else if (value instanceof COSName) {
+            digest.update((byte) 'n');
+            updateString(digest, ((COSName) value).getName());
+        } else if (value instanceof COSString) {
+            byte[] bytes = ((COSString) value).getBytes();
+            digest.update((byte) 's');
+            updateLength(digest, bytes.length);
+            digest.update(bytes);
+        } else if (value instanceof COSNumber || value instanceof COSBoolean) {
+            digest.update((byte) 'v');
+            updateString(digest, value.toString());
+        } else if (value instanceof COSArray || value instanceof COSDictionary) {
+            // a reference back to an enclosing object, i.e. /Parent
+            if (!visiting.add(value)) {
+                digest.update((byte) 'r');
+                return true;
+            }
+            boolean hashed = value instanceof COSArray ? updateArray(digest, (COSArray) value, depth, visiting)
+                                                        : updateDictionary(digest, (COSDictionary) value, depth, visiting);
+            visiting.remove(value);
+            return hashed;
+        } else {
+            digest.update((byte) 'z');
+        }
+
+        return true;
+    }
+
+    private static boolean updateArray(MessageDigest digest, COSArray array, int depth, Set<COSBase> visiting) throws IOException {
+        digest.update((byte) '[');
+        updateLength(digest, array.size());
+        for (int i = 0; i < array.size(); i++) {
+            if (!update(digest, array.get(i), depth + 1, visiting)) return false;
+        }
+        return true;
+    }
+
+    private static boolean updateDictionary(MessageDigest digest, COSDictionary dictionary, int depth, Set<COSBase> visiting) throws IOException {
+        List<COSName> names = new ArrayList<>(dictionary.keySet());
+        names.sort(null);
+
+        digest.update((byte) '{');
+        updateLength(digest, names.size());
+        for (COSName name : names) {
+            updateString(digest, name.getName());
+            if (!update(digest, dictionary.getItem(name), depth + 1, visiting)) return false;
+        }
+
+        if (dictionary instanceof COSStream) {
+            digest.update((byte) 'b');
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = ((COSStream) dictionary).createRawInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) > 0) digest.update(buffer, 0, read);
+            }
+        }
+        return true;
+    }
+
+    private static void updateString(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateLength(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    // length prefix, so that different splits of the same bytes give different hashes
+    private static void updateLength(MessageDigest digest, int length) {
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
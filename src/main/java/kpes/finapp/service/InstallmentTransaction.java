@@ -6,7 +6,8 @@ import java.util.Objects;
 public class InstallmentTransaction extends AbstractTransaction {
 
     private LocalDate lastPaymentDate;
-    private double remainingBal;
+    // in minor units (centavos), see Money
+    private long remainingBal;
 
     protected InstallmentTransaction(LocalDate transactionDate, 
                                         String description, 
@@ -14,9 +15,35 @@ public class InstallmentTransaction extends AbstractTransaction {
                                         LocalDate lastPaymentDate,
                                         double remainingBal) {
                             
-        super(transactionDate, description, amount);
+        this(transactionDate, description, Money.toCents(amount), lastPaymentDate, Money.toCents(remainingBal));
+    }
+
+    private InstallmentTransaction(LocalDate transactionDate, 
+                                        String description, 
+                                        long amountCents,
+                                        LocalDate lastPaymentDate,
+                                        long remainingBalCents) {
+                            
+        super(transactionDate, description, amountCents);
         this.lastPaymentDate = lastPaymentDate;
-        this.remainingBal = remainingBal;
+        this.remainingBal = remainingBalCents;
+    }
+
+    /**
+     * Creates an installment with amounts that are already in minor units (centavos)
+     * @param transactionDate - date of the purchase
+     * @param description - description of the purchase
+     * @param amountCents - purchase amount in centavos
+     * @param lastPaymentDate - date of the last installment payment
+     * @param remainingBalCents - remaining balance in centavos
+     * @return new installment transaction
+     */
+    protected static InstallmentTransaction ofCents(LocalDate transactionDate, 
+                                        String description, 
+                                        long amountCents,
+                                        LocalDate lastPaymentDate,
+                                        long remainingBalCents) {
+        return new InstallmentTransaction(transactionDate, description, amountCents, lastPaymentDate, remainingBalCents);
     }
 
     public LocalDate getLastPaymentDate() {
@@ -24,12 +51,16 @@ public class InstallmentTransaction extends AbstractTransaction {
     }
 
     public double getRemainingBal() {
+        return Money.toDouble(remainingBal);
+    }
+
+    public long getRemainingBalCents() {
         return remainingBal;
     }
 
     @Override
     public String toString() {
-        return String.format("%tD - %tD - %s - %,.2f - %,.2f", transactionDate, lastPaymentDate, description, amount, remainingBal);
+        return String.format("%tD - %tD - %s - %,.2f - %,.2f", transactionDate, lastPaymentDate, description, Money.toDecimal(amount), Money.toDecimal(remainingBal));
     }
 
      //TODO fix equals
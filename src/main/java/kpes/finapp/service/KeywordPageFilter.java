@@ -0,0 +1,181 @@
+package kpes.finapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link PageFilter} that keeps a page when it has enough hits of a set of keywords. Each
+ * rule is a list of keywords and the minimum number of hits (all keywords counted together,
+ * every occurrence counts), and a page is kept if any rule is met. Keywords are matched
+ * without case and spaces, so "Statement Date" also matches "STATEMENTDATE". A rule can
+ * also count the matches of patterns, for anchors that need a value after them, or need
+ * every one of its patterns somewhere on the page, for a label and a value that are not
+ * next to each other in the text.
+ * @author Krizzia Santillan
+ */
+public class KeywordPageFilter implements PageFilter {
+
+    // a month name, in full or as 3 letters, and the day, i.e. "JANUARY10" or "JAN10"
+    private static final String DATE = "(JAN(UARY)?|FEB(RUARY)?|MAR(CH)?|APR(IL)?|MAY|JUNE?|JULY?|AUG(UST)?"
+                                        + "|SEP(T(EMBER)?)?|OCT(OBER)?|NOV(EMBER)?|DEC(EMBER)?)\\d{1,2}";
+    private static final String AMOUNT = "(\\d{1,3},)*\\d{1,3}\\.\\d\\d";
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Adds a rule
+     * @param minHits - number of keyword occurrences a page needs to be kept
+     * @param keywords - keywords to count
+     * @return this filter
+     */
+    public KeywordPageFilter addRule(int minHits, String... keywords) {
+        if (minHits < 1) throw new IllegalArgumentException("Minimum hits must be at least 1");
+        if (keywords.length == 0) throw new IllegalArgumentException("Rule has no keywords");
+
+        Pattern[] patterns = new Pattern[keywords.length];
+        for (int i = 0; i < keywords.length; i++) {
+            String normalized = normalize(keywords[i]);
+            if (normalized.isEmpty()) throw new IllegalArgumentException("Keyword must not be empty");
+            patterns[i] = Pattern.compile(normalized, Pattern.LITERAL);
+        }
+
+        rules.add(new Rule(minHits, patterns));
+        return this;
+    }
+
+    /**
+     * Adds a rule that counts matches of patterns instead of keywords. The patterns are
+     * matched against the page text without spaces and in upper case, i.e.
+     * "STATEMENTDATE[A-Z]+\d\d?,20\d\d".
+     * @param minHits - number of matches a page needs to be kept
+     * @param patterns - patterns to count
+     * @return this filter
+     */
+    public KeywordPageFilter addPatternRule(int minHits, Pattern... patterns) {
+        if (minHits < 1) throw new IllegalArgumentException("Minimum hits must be at least 1");
+        if (patterns.length == 0) throw new IllegalArgumentException("Rule has no patterns");
+
+        rules.add(new Rule(minHits, patterns.clone()));
+        return this;
+    }
+
+    /**
+     * Adds a rule that is met when every pattern matches somewhere on the page, in any
+     * order. The patterns are matched like in {@link #addPatternRule(int, Pattern...)}.
+     * @param patterns - patterns that must all be found
+     * @return this filter
+     */
+    public KeywordPageFilter addAllOfRule(Pattern... patterns) {
+        if (patterns.length == 0) throw new IllegalArgumentException("Rule has no patterns");
+
+        rules.add(new Rule(Rule.ALL, patterns.clone()));
+        return this;
+    }
+
+    /**
+     * Pages of a BPI credit card statement. Only anchors that come with a statement value
+     * are used, since the terms pages also mention "payment due date" or "minimum amount
+     * due" and month names ("may"):
+     * <ul>
+     * <li>the summary page has the "STATEMENT DATE" label and a full date, i.e.
+     *     "FEBRUARY 04, 2025", anywhere on the page</li>
+     * <li>the account number delimiter, i.e. "123456-7-89-0123456-JUANDELACRUZ"</li>
+     * <li>transaction and installment pages have two dates next to each other, i.e.
+     *     "January 10 January 11"</li>
+     * <li>the installment pages have the S.I.P. summary, or the Unbilled Installment Amount
+     *     label and an amount anywhere on the page</li>
+     * </ul>
+     * {@link StatementTextStripper#findPages} reads the pages in content stream order, so a
+     * label and its value can be far apart when a writer draws all the labels first. The
+     * labels are therefore only required on the same page as their value. Two dates are
+     * still next to each other in that order when the rows are written one by one (the
+     * transaction date, then the posting date) and when the columns are (a date, then the
+     * date of the next row).
+     * @return the filter
+     */
+    public static KeywordPageFilter forBPICreditStatement() {
+        return new KeywordPageFilter()
+                    .addAllOfRule(Pattern.compile("STATEMENTDATE", Pattern.LITERAL),
+                                  Pattern.compile(DATE + ",20\\d\\d"))
+                    .addAllOfRule(Pattern.compile("UNBILLEDINSTALLMENTAMOUNT", Pattern.LITERAL),
+                                  Pattern.compile(AMOUNT))
+                    .addPatternRule(1, Pattern.compile("\\d{6}-\\d-\\d{2}-\\d{7}-"),
+                                       Pattern.compile(DATE + DATE),
+                                       Pattern.compile("S.I.P.BALANCESUMMARY", Pattern.LITERAL));
+    }
+
+    @Override
+    public boolean isRelevant(int pageNumber, CharSequence pageText) {
+        String text = normalize(pageText);
+
+        for (Rule rule : rules) {
+            if (rule.isMet(text)) return true;
+        }
+
+        return false;
+    }
+
+    private static String normalize(CharSequence text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (!Character.isWhitespace(ch)) normalized.append(ch);
+        }
+        return normalized.toString().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the rules, i.e. "KeywordPageFilter[1:STATEMENTDATE,PAYMENTDUEDATE]", with
+     *         "all" instead of the number of hits for a rule of {@link #addAllOfRule(Pattern...)}
+     */
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder("KeywordPageFilter");
+        for (Rule rule : rules) {
+            description.append('[').append(rule.minHits == Rule.ALL ? "all" : String.valueOf(rule.minHits)).append(':');
+            for (int i = 0; i < rule.patterns.length; i++) {
+                if (i > 0) description.append(',');
+                description.append(rule.patterns[i].pattern());
+            }
+            description.append(']');
+        }
+        return description.toString();
+    }
+
+    private static final class Rule {
+
+        // minHits of a rule that needs every pattern
+        static final int ALL = 0;
+
+        private final int minHits;
+        private final Pattern[] patterns;
+
+        Rule(int minHits, Pattern[] patterns) {
+            this.minHits = minHits;
+            this.patterns = patterns;
+        }
+
+        boolean isMet(String text) {
+            if (minHits == ALL) {
+                for (Pattern pattern : patterns) {
+                    if (!pattern.matcher(text).find()) return false;
+                }
+                return true;
+            }
+
+            int hits = 0;
+            for (Pattern pattern : patterns) {
+                Matcher matcher = pattern.matcher(text);
+                while (matcher.find()) {
+                    if (++hits >= minHits) return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package kpes.finapp.service;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named rectangles of a statement layout that does not change from month to month (i.e.
+ * the summary box on page 1), so only those rectangles are extracted instead of the whole
+ * page, see {@link PDFBoxExtractor#extractRegions(java.nio.file.Path, String, LayoutProfile)}.
+ *
+ * Rectangles are in PDF points (1/72 inch) with the origin at the top left corner of the
+ * page and y going down, the same as {@link org.apache.pdfbox.text.PDFTextStripperByArea}.
+ * The region names of a credit statement are the {@code *_REGION} constants of
+ * {@link CreditStatement}.
+ * @author Krizzia Santillan
+ */
+public class LayoutProfile {
+
+    private final Map<String, Region> regions = new LinkedHashMap<>();
+
+    /**
+     * Adds a region, or replaces the region with the same name
+     * @param name - name of the region, i.e. {@link CreditStatement#SUMMARY_REGION}
+     * @param page - page of the region, starting at 1
+     * @param x - left edge, in points from the left of the page
+     * @param y - top edge, in points from the top of the page
+     * @param width - width in points
+     * @param height - height in points
+     * @return this profile, for chaining
+     */
+    public LayoutProfile addRegion(String name, int page, double x, double y, double width, double height) {
+        if (page < 1) throw new IllegalArgumentException("Page must be at least 1");
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Region must not be empty");
+
+        regions.put(name, new Region(page, new Rectangle2D.Double(x, y, width, height)));
+        return this;
+    }
+
+    /**
+     * @return the regions by name, in the order they were added
+     */
+    public Map<String, Region> getRegions() {
+        return Collections.unmodifiableMap(regions);
+    }
+
+    /**
+     * A rectangle on one page
+     */
+    public static final class Region {
+
+        private final int page;
+        private final Rectangle2D area;
+
+        Region(int page, Rectangle2D area) {
+            this.page = page;
+            this.area = area;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public Rectangle2D getArea() {
+            return (Rectangle2D) area.clone();
+        }
+
+    }
+
+}
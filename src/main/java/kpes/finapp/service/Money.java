@@ -0,0 +1,44 @@
+package kpes.finapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are kept as a {@code long} number of minor units (centavos), so that sums
+ * and balance checks are exact integer arithmetic. This class converts between that
+ * representation and the {@code double} values used by the public API and the export.
+ * @author Krizzia Santillan
+ */
+public final class Money {
+
+    private static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * @param amount - amount in major units, i.e. 1234.56
+     * @return the amount in minor units, i.e. 123456, rounded half up to 2 decimal places
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static long toCents(double amount) {
+        return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param cents - amount in minor units
+     * @return the closest double to the amount in major units
+     */
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * @param cents - amount in minor units
+     * @return the exact amount in major units, with 2 decimal places (i.e. for {@code %,.2f})
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+}
@@ -10,7 +10,8 @@ public class OldBankStatement {
     private Bank bankAndType;
     private List<OldBankTransaction> summary;
     private List<OldBankTransaction> details;
-    private float totalTxnAmount;
+    // in minor units (centavos), see Money
+    private long totalTxnAmount;
 
     /**
      * Cut-off date of the statement, if applicable
@@ -45,7 +46,7 @@ public class OldBankStatement {
         
         totalTxnAmount = 0;
         for (OldBankTransaction txn: this.details){
-            totalTxnAmount += txn.getAmount();
+            totalTxnAmount += txn.getAmountCents();
         }
 
         statementDate = null;
@@ -65,6 +66,10 @@ public class OldBankStatement {
     }
 
     public float getTotalTxnAmount() {
+        return (float) Money.toDouble(totalTxnAmount);
+    }
+
+    public long getTotalTxnAmountCents() {
         return totalTxnAmount;
     }
 
@@ -97,11 +102,19 @@ public class OldBankStatement {
      * @return amount due
      */
     public float getAmountDue(){
+        return (float) Money.toDouble(getAmountDueCents());
+    }
+
+    /**
+     * Same as {@link #getAmountDue()} in minor units (centavos)
+     * @return amount due in centavos
+     */
+    public long getAmountDueCents(){
         if (bankAndType.equals(Bank.BPICC)) {
 
             for (OldBankTransaction txn: summary) {
                 if (txn.getDescription().equals("EndingBalance")){
-                    return txn.getAmount();
+                    return txn.getAmountCents();
                 }
             }
 
@@ -114,7 +127,7 @@ public class OldBankStatement {
     public String toString() {
         if (bankAndType.equals(Bank.BPICC)) {
             return String.format("Statement Date: %tB %<td, %<tY \nDue Date: %tB %<td, %<tY \nTotal Transactions: %,.2f \nAmount Due: %,.2f", 
-                                    statementDate, dueDate, totalTxnAmount,getAmountDue());
+                                    statementDate, dueDate, Money.toDecimal(totalTxnAmount), Money.toDecimal(getAmountDueCents()));
         }
         
         // TODO for other types
@@ -3,7 +3,9 @@ package kpes.finapp.service;
 public class OldBankTransaction {
 
     private String description;
-    private float amount;
+
+    // in minor units (centavos), see Money
+    private long amount;
 
     /**
      * Represents one transaction in a bank statement.
@@ -12,8 +14,22 @@ public class OldBankTransaction {
      * @param amount amount of the transaction (or the summarized amount)
      */
     public OldBankTransaction(String description, float amount){
+        this(description, Money.toCents(amount));
+    }
+
+    private OldBankTransaction(String description, long amountCents){
         this.description = description;
-        this.amount = amount;
+        this.amount = amountCents;
+    }
+
+    /**
+     * Same as {@link #OldBankTransaction(String, float)} with an amount that is already in minor units
+     * @param description describes the transation
+     * @param amountCents amount in centavos, i.e. 123456 for 1,234.56
+     * @return new transaction
+     */
+    public static OldBankTransaction ofCents(String description, long amountCents) {
+        return new OldBankTransaction(description, amountCents);
     }
 
     public String getDescription() {
@@ -21,12 +37,16 @@ public class OldBankTransaction {
     }
 
     public float getAmount() {
+        return (float) Money.toDouble(amount);
+    }
+
+    public long getAmountCents() {
         return amount;
     }
 
     @Override
     public String toString() {
-        return String.format("%s - %.2f", description, amount);
+        return String.format("%s - %.2f", description, Money.toDecimal(amount));
     }
     
 }
@@ -1,13 +1,256 @@
 package kpes.finapp.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.PDFTextStripperByArea;
 
-public class PDFBoxExtractor implements TextExtractor<Path, String> {
+public class PDFBoxExtractor implements TextExtractor<Path, String>, StreamingTextExtractor<Path, String>, AutoCloseable {
+
+    // documents with fewer pages than this are not worth splitting
+    private static final int MIN_PAGES_PER_TASK = 2;
+
+    // number of page ranges extracted at the same time (1 extracts the whole document in one pass)
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    // drop spaces while writing the text (see BPICreditStatement.preprocessRawText)
+    private boolean stripSpaces;
+
+    // read files through a memory mapping instead of copying them into the heap
+    private boolean memoryMapped;
+
+    // limits for the streams PDFBox decodes while loading a document, null for the PDFBox default
+    private MemoryUsageSetting memoryUsage;
+
+    // pages extracted by probeText, 0 when probeText does not preview
+    private int probePages;
+
+    // pages to extract in full, null for all pages
+    private PageFilter pageFilter;
+
+    // skip the form XObjects that cannot show text, see TextOnlyDrawObject
+    private boolean textOnly;
+
+    // order the text by baseline bins instead of sorting it, see StatementTextStripper
+    private boolean lineBinning;
+
+    // fonts kept across documents, null to parse the fonts of every document
+    private FontCache fontCache;
+
+    // size, pages, characters and time allowed per document
+    private ExtractionLimits limits = ExtractionLimits.NONE;
+
+    // a buffer that grew past this is not kept, so one large document does not hold on to it
+    private static final int MAX_KEPT_CHARS = 1024 * 1024;
+
+    // output buffer reused by each thread, shared by all extractors, see extract
+    private static final ThreadLocal<StringWriter> OUTPUTS = new ThreadLocal<>();
+
+    /**
+     * Creates an extractor that processes the pages of a document sequentially
+     */
+    public PDFBoxExtractor() {
+        this(1);
+    }
+
+    /**
+     * Creates an extractor that splits the pages of a document into page ranges and
+     * extracts up to {@code parallelism} ranges at the same time. The page texts are
+     * joined back in page order, so the result is the same as the sequential extraction.
+     * The threads of the ranges are kept until the extractor is closed.
+     * @param parallelism - number of page ranges extracted at the same time
+     */
+    public PDFBoxExtractor(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+        this.parallelism = parallelism;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Stops the threads of a parallel extractor once the extractions that are running are
+     * finished. A parallel extraction started after this is rejected. Nothing to do for a
+     * sequential extractor.
+     */
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+
+    public boolean isStripSpaces() {
+        return stripSpaces;
+    }
+
+    /**
+     * When enabled, the extracted text has no spaces, the same as the output of
+     * {@link BPICreditStatement#preprocessRawText()}, so the statement does not need to
+     * copy the whole text again to remove them. Line breaks are kept.
+     * @param stripSpaces - true to leave out all spaces from the extracted text
+     */
+    public void setStripSpaces(boolean stripSpaces) {
+        this.stripSpaces = stripSpaces;
+    }
+
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * When enabled, files are read through a memory mapping, so the content of a file is
+     * paged in by the operating system instead of being copied into the heap, and pages
+     * are shared by the page range tasks of a parallel extraction. Documents that are
+     * already in memory are not affected.
+     * @param memoryMapped - true to memory map the files
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    public MemoryUsageSetting getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Sets the heap and scratch file budget for loading each document (i.e.
+     * {@code MemoryUsageSetting.setupMixed(16 * 1024 * 1024)} keeps up to 16 MB per document
+     * in the heap and the rest in temporary files). Extractors with different budgets can
+     * be used for different jobs. Each page range task of a parallel extraction has its
+     * own budget.
+     * @param memoryUsage - budget per document, null for the PDFBox default (heap only, no limit)
+     */
+    public void setMemoryUsage(MemoryUsageSetting memoryUsage) {
+        this.memoryUsage = memoryUsage;
+    }
+
+    public int getProbePages() {
+        return probePages;
+    }
+
+    /**
+     * The preview loads the document once more before the full extraction, so it only pays
+     * off when many of the files are not statements (i.e. a mixed inbox). Off by default.
+     * @param probePages - number of pages extracted by {@link #probeText(Path, String)}, 0 to not preview
+     */
+    public void setProbePages(int probePages) {
+        if (probePages < 0) throw new IllegalArgumentException("Probe pages must not be negative");
+        this.probePages = probePages;
+    }
+
+    public PageFilter getPageFilter() {
+        return pageFilter;
+    }
+
+    /**
+     * When set, a cheap pass over the document (text not sorted by position) first finds the
+     * pages that {@code pageFilter} keeps, i.e. {@link KeywordPageFilter#forBPICreditStatement()},
+     * and only those pages are extracted in full. Promotional inserts and terms pages are
+     * then skipped by the costly sorted extraction and by the parsing. Not used by
+     * {@link #probeText(Path, String)}.
+     * @param pageFilter - decides which pages to extract, null to extract all pages
+     */
+    public void setPageFilter(PageFilter pageFilter) {
+        this.pageFilter = pageFilter;
+    }
+
+    public boolean isTextOnly() {
+        return textOnly;
+    }
+
+    /**
+     * When enabled, logos, card art and other form XObjects that have no fonts of their own
+     * are skipped without parsing their content streams (see {@link TextOnlyDrawObject}).
+     * Images are never decoded for text extraction in any case.
+     * @param textOnly - true to skip the forms that cannot show text
+     */
+    public void setTextOnly(boolean textOnly) {
+        this.textOnly = textOnly;
+    }
+
+    public boolean isLineBinning() {
+        return lineBinning;
+    }
+
+    /**
+     * When enabled, the text of each page is put in line order by baseline bins instead of
+     * the sort by position of PDFBox, which is the costly part of the layout analysis of a
+     * long page. The output is the same for statements laid out in lines; text that
+     * overlaps across lines (i.e. rotated or stacked labels) may come out in another order.
+     * Off by default.
+     * @param lineBinning - true to order the text by baseline bins
+     */
+    public void setLineBinning(boolean lineBinning) {
+        this.lineBinning = lineBinning;
+    }
+
+    public FontCache getFontCache() {
+        return fontCache;
+    }
+
+    /**
+     * When set, the fonts of each extracted document are kept in {@code fontCache}, and a
+     * later document with the same embedded fonts (i.e. the next statement of the same bank)
+     * uses them instead of parsing them again. One cache can be shared by many extractors.
+     * The kept fonts keep the source of their closed documents reachable, see {@link FontCache}.
+     * @param fontCache - where the fonts are kept, null to parse the fonts of every document
+     */
+    public void setFontCache(FontCache fontCache) {
+        this.fontCache = fontCache;
+    }
+
+    public ExtractionLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Limits each document to extract, so that a malformed or very large PDF fails with an
+     * {@link ExtractionLimitExceededException} instead of holding the thread. The size and
+     * the pages are checked when the document is loaded, the time before each page and the
+     * characters as they are written. The time runs from the start of each call.
+     * @param limits - limits per document, null for no limits
+     */
+    public void setLimits(ExtractionLimits limits) {
+        this.limits = limits != null ? limits : ExtractionLimits.NONE;
+    }
+
+    /**
+     * Describes the settings that change the extracted text, so that texts extracted with
+     * different settings are told apart (see {@link CachingTextExtractor}).
+     * {@code parallelism} and the memory settings are left out since the text is the same for any value.
+     * @return the settings, i.e. "PDFBoxExtractor;stripSpaces=true"
+     */
+    public String getSettings() {
+        String settings = "PDFBoxExtractor;stripSpaces=" + stripSpaces;
+        if (textOnly) settings += ";textOnly=true";
+        if (lineBinning) settings += ";lineBinning=true";
+        return pageFilter == null ? settings : settings + ";pageFilter=" + pageFilter;
+    }
 
     // Tightly coupled with PDFBox methods since this is a specific implementation of TextExtractor
     // TextExtractor remains open for extention and closed for modification
@@ -21,15 +264,401 @@ public class PDFBoxExtractor implements TextExtractor<Path, String> {
     @Override
     public String extractText(Path forExtraction, String credentials) throws IOException {
 
-        String text = "";
+        ExtractionLimits.Budget budget = limits.start();
+
+        if (parallelism > 1) {
+            // before the whole file is read
+            limits.checkBytes(Files.size(forExtraction));
+            if (!memoryMapped) return extractPageRanges(ByteBuffer.wrap(Files.readAllBytes(forExtraction)), credentials, budget);
+
+            MappedByteBuffer mapped = map(forExtraction);
+            try {
+                return extractPageRanges(mapped, credentials, budget);
+            } finally {
+                IOUtils.unmap(mapped);
+            }
+        }
+
+        try (PDDocument document = load(forExtraction, credentials)) {
+            return extractAll(document, budget);
+        }
+
+    }
+
+    /**
+     * Extracts only the first {@code probePages} pages of a PDF file, which is enough to tell
+     * whether it is a statement without stripping the text of every page, see
+     * {@link #setProbePages(int)}
+     * @param forExtraction Path pointing to a PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @return text of the first pages, or null if {@code probePages} is 0 (the default)
+     * @throws IOException if there is a problem in accessing the external file
+     */
+    @Override
+    public String probeText(Path forExtraction, String credentials) throws IOException {
+
+        if (probePages == 0) return null;
+
+        ExtractionLimits.Budget budget = limits.start();
+
+        try (PDDocument document = load(forExtraction, credentials)) {
+            return extract(document, null, 1, probePages, false, budget);
+        }
+
+    }
+
+    /**
+     * PDF text extractor from a document that is already in memory (i.e. an upload), so it
+     * does not have to be written to a file first
+     * @param data - content of the PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @return text extracted from the document
+     * @throws IOException if the data is not a readable PDF document
+     */
+    public String extractText(byte[] data, String credentials) throws IOException {
+        return extractText(ByteBuffer.wrap(data), credentials);
+    }
+
+    /**
+     * PDF text extractor from a document that is already in memory, read from the position
+     * to the limit of {@code data}. The buffer is read in place, not copied, and its
+     * position is not changed.
+     * @param data - content of the PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @return text extracted from the document
+     * @throws IOException if the data is not a readable PDF document
+     */
+    public String extractText(ByteBuffer data, String credentials) throws IOException {
+
+        // RandomAccessReadBuffer reads from index 0, so the remaining bytes are sliced first
+        ByteBuffer source = data.slice();
+        ExtractionLimits.Budget budget = limits.start();
+
+        if (parallelism > 1) return extractPageRanges(source, credentials, budget);
+
+        try (PDDocument document = load(source, credentials)) {
+            return extractAll(document, budget);
+        }
+
+    }
+
+    /**
+     * PDF text extractor from a stream (i.e. the body of an upload request). The stream is
+     * read to the end, or to one byte over the size limit, but it is not closed.
+     * @param data - content of the PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @return text extracted from the document
+     * @throws IOException if the stream cannot be read or is not a readable PDF document
+     */
+    public String extractText(InputStream data, String credentials) throws IOException {
+        long maxBytes = limits.getMaxBytes();
+        if (maxBytes == 0 || maxBytes >= Integer.MAX_VALUE - 8) return extractText(data.readAllBytes(), credentials);
+
+        // one byte more than the limit is enough to reject the stream
+        return extractText(data.readNBytes((int) maxBytes + 1), credentials);
+    }
+
+    /**
+     * PDF text extractor from an external file that hands out the text one page at a time.
+     * Pages are always extracted sequentially, even when {@code parallelism} is more than 1.
+     * Unlike {@link #extractText(Path, String)}, the page texts are not trimmed.
+     * @param forExtraction Path pointing to a PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @param consumer receives the text of each page in page order
+     * @throws IOException if there is a problem in accessing the external file
+     */
+    @Override
+    public void extractText(Path forExtraction, String credentials, PageTextConsumer consumer) throws IOException {
+
+        ExtractionLimits.Budget budget = limits.start();
+
+        try (PDDocument document = load(forExtraction, credentials)) {
+            createStripper(document, budget).streamText(document, consumer);
+        }
+
+    }
+
+    /**
+     * Extracts the lines of a PDF file as table rows, with the text put in columns by its
+     * x position instead of being flattened into one line of text (see
+     * {@link BPICreditStatement#setTransactionRows(List)}). Pages are always extracted
+     * sequentially. Only the pages kept by the page filter are extracted.
+     * @param forExtraction Path pointing to a PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @param columnStarts - left edge of each column in points, in ascending order
+     * @return rows of all pages, in page order
+     * @throws IOException if there is a problem in accessing the external file
+     * @see #extractTable(Path, String, float...)
+     */
+    public List<TableRow> extractRows(Path forExtraction, String credentials, float... columnStarts) throws IOException {
+        return extractTable(forExtraction, credentials, columnStarts).getRows();
+    }
+
+    /**
+     * Same as {@link #extractRows(Path, String, float...)}, and also returns the text that
+     * {@link #extractText(Path, String)} gives for the file, from the same pass over the pages.
+     * Use this instead of calling both when the statement needs the text and the rows
+     * (see {@link BPICreditStatement#loadStatementTable(Path, PDFBoxExtractor, String, float...)}).
+     * @param forExtraction Path pointing to a PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @param columnStarts - left edge of each column in points, in ascending order
+     * @return trimmed text and the rows of all pages, in page order
+     * @throws IOException if there is a problem in accessing the external file
+     */
+    public TableText extractTable(Path forExtraction, String credentials, float... columnStarts) throws IOException {
+
+        ExtractionLimits.Budget budget = limits.start();
+
+        try (PDDocument document = load(forExtraction, credentials)) {
+            StatementTextStripper pdfStripper = createStripper(document, budget);
+            pdfStripper.setColumns(columnStarts);
+            String text = write(pdfStripper, document, true);
+            return new TableText(text, pdfStripper.getRows());
+        }
+
+    }
+
+    /**
+     * Extracts only the regions of a fixed layout (i.e. the summary box on page 1) with
+     * {@link PDFTextStripperByArea}, so the rest of the page is never sorted or written.
+     * Each page is processed once for all of its regions, pages without regions are skipped.
+     * @param forExtraction Path pointing to a PDF file
+     * @param credentials to use for opening encrypted PDF
+     * @param profile - regions to extract
+     * @return text of each region by name, in the order of the profile. Regions on pages
+     *         the document does not have are left out.
+     * @throws IOException if there is a problem in accessing the external file
+     */
+    public Map<String, String> extractRegions(Path forExtraction, String credentials, LayoutProfile profile) throws IOException {
+
+        Map<Integer, List<String>> namesByPage = new TreeMap<>();
+        profile.getRegions().forEach((name, region) ->
+                namesByPage.computeIfAbsent(region.getPage(), page -> new ArrayList<>()).add(name));
+
+        Map<String, String> found = new LinkedHashMap<>();
+        profile.getRegions().keySet().forEach(name -> found.put(name, null));
+
+        ExtractionLimits.Budget budget = limits.start();
+
+        try (PDDocument document = load(forExtraction, credentials)) {
+            for (Map.Entry<Integer, List<String>> entry : namesByPage.entrySet()) {
+                if (entry.getKey() > document.getNumberOfPages()) break;
+                budget.checkPage();
+
+                PDFTextStripperByArea areaStripper = new PDFTextStripperByArea();
+                areaStripper.setSortByPosition(true);
+                for (String name : entry.getValue()) {
+                    areaStripper.addRegion(name, profile.getRegions().get(name).getArea());
+                }
 
-        try (PDDocument document = Loader.loadPDF(forExtraction.toFile(), credentials)) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            pdfStripper.setSortByPosition(true);
-            text = pdfStripper.getText(document).trim();
-            return text;
+                areaStripper.extractRegions(document.getPage(entry.getKey() - 1));
+                for (String name : entry.getValue()) {
+                    String text = areaStripper.getTextForRegion(name).trim();
+                    found.put(name, stripSpaces ? text.replace(" ", "") : text);
+                }
+            }
+        }
+
+        found.values().removeIf(text -> text == null);
+        return found;
+
+    }
+
+    private StatementTextStripper createStripper() {
+        StatementTextStripper pdfStripper = new StatementTextStripper();
+        configure(pdfStripper);
+        return pdfStripper;
+    }
+
+    private void configure(StatementTextStripper pdfStripper) {
+        pdfStripper.setStripSpaces(stripSpaces);
+        pdfStripper.setTextOnly(textOnly);
+        pdfStripper.setLineBinning(lineBinning);
+    }
+
+    /* Whole document, or only the pages kept by pageFilter, trimmed */
+    private String extractAll(PDDocument document, ExtractionLimits.Budget budget) throws IOException {
+        BitSet pages = pageFilter != null ? StatementTextStripper.findPages(document, pageFilter, budget) : null;
+        return extract(document, pages, 1, Integer.MAX_VALUE, true, budget);
+    }
+
+    /* Extracts the given pages with a new stripper */
+    private String extract(PDDocument document, BitSet pages, int startPage, int endPage, boolean trim,
+                            ExtractionLimits.Budget budget) throws IOException {
+        StatementTextStripper pdfStripper = createStripper();
+        pdfStripper.setPages(pages);
+        pdfStripper.setStartPage(startPage);
+        pdfStripper.setEndPage(endPage);
+        pdfStripper.setBudget(budget);
+        return write(pdfStripper, document, trim);
+    }
+
+    /*
+    * Writes into the output buffer of the current thread. The buffer is taken out of OUTPUTS
+    * while it is used, so an extraction started while another one is still running on the
+    * same thread gets a new buffer instead of sharing it.
+    */
+    private static String write(StatementTextStripper pdfStripper, PDDocument document, boolean trim) throws IOException {
+        StringWriter output = OUTPUTS.get();
+        if (output == null) output = new StringWriter();
+        else OUTPUTS.remove();
+
+        StringBuffer buffer = output.getBuffer();
+        try {
+            pdfStripper.writeText(document, output);
+            return trim ? trimmed(buffer) : buffer.toString();
+        } finally {
+            if (buffer.capacity() <= MAX_KEPT_CHARS) {
+                buffer.setLength(0);
+                OUTPUTS.set(output);
+            }
+        }
+    }
+
+    // same as buffer.toString().trim(), with one copy
+    private static String trimmed(StringBuffer buffer) {
+        int start = 0;
+        int end = buffer.length();
+        while (start < end && buffer.charAt(start) <= ' ') start++;
+        while (end > start && buffer.charAt(end - 1) <= ' ') end--;
+        return buffer.substring(start, end);
+    }
+
+    /* Stripper limited to the pages kept by pageFilter */
+    private StatementTextStripper createStripper(PDDocument document, ExtractionLimits.Budget budget) throws IOException {
+        StatementTextStripper pdfStripper = createStripper();
+        pdfStripper.setBudget(budget);
+        if (pageFilter != null) pdfStripper.setPages(StatementTextStripper.findPages(document, pageFilter, budget));
+        return pdfStripper;
+    }
+
+    /*
+    * PDDocument is not thread safe, so every page range task loads its own copy
+    * of the document from the same bytes instead of sharing one instance.
+    */
+    private String extractPageRanges(ByteBuffer data, String credentials, ExtractionLimits.Budget budget) throws IOException {
+
+        int pageCount;
+        BitSet pages = null;
+
+        try (PDDocument document = load(data, credentials)) {
+            pageCount = document.getNumberOfPages();
+
+            // not worth splitting, extract with the document that is already loaded
+            if (pageCount < 2 * MIN_PAGES_PER_TASK) {
+                return extractAll(document, budget);
+            }
+
+            // found once, the tasks only read it
+            if (pageFilter != null) pages = StatementTextStripper.findPages(document, pageFilter, budget);
+        }
+
+        int pagesPerTask = Math.max(MIN_PAGES_PER_TASK, (pageCount + parallelism - 1) / parallelism);
+
+        try {
+            return pool.invoke(new PageRangeTask(data, credentials, pages, 1, pageCount, pagesPerTask, budget)).trim();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
 
     }
-    
+
+    private PDDocument load(Path file, String credentials) throws IOException {
+        limits.checkBytes(Files.size(file));
+        if (memoryMapped) return useFontCache(checkPages(Loader.loadPDF(new RandomAccessReadMemoryMappedFile(file), credentials, streamCache())));
+        return useFontCache(checkPages(Loader.loadPDF(file.toFile(), credentials, streamCache())));
+    }
+
+    /* Each load reads its own view of the buffer, so tasks never share a position */
+    private PDDocument load(ByteBuffer data, String credentials) throws IOException {
+        limits.checkBytes(data.remaining());
+        return useFontCache(checkPages(Loader.loadPDF(new RandomAccessReadBuffer(data.duplicate()), credentials, streamCache())));
+    }
+
+    /* The page tree is read on load, so the pages are counted before any text is extracted */
+    private PDDocument checkPages(PDDocument document) throws IOException {
+        try {
+            limits.checkPages(document.getNumberOfPages());
+            return document;
+        } catch (ExtractionLimitExceededException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    /* The document is extracted by the thread that loaded it, so it can use the fonts of that thread */
+    private PDDocument useFontCache(PDDocument document) {
+        if (fontCache != null) document.setResourceCache(fontCache.forDocument());
+        return document;
+    }
+
+    private StreamCacheCreateFunction streamCache() {
+        return memoryUsage != null ? memoryUsage.streamCache : IOUtils.createMemoryOnlyStreamCache();
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /*
+    * Splits the page range in half until it is small enough, then extracts
+    * the range with setStartPage/setEndPage. Texts are joined in page order.
+    */
+    private class PageRangeTask extends RecursiveTask<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer data;
+        private final String credentials;
+        private final BitSet pages;
+        private final int startPage;
+        private final int endPage;
+        private final int pagesPerTask;
+        private final ExtractionLimits.Budget budget;
+
+        PageRangeTask(ByteBuffer data, String credentials, BitSet pages, int startPage, int endPage, int pagesPerTask,
+                        ExtractionLimits.Budget budget) {
+            this.data = data;
+            this.credentials = credentials;
+            this.pages = pages;
+            this.startPage = startPage;
+            this.endPage = endPage;
+            this.pagesPerTask = pagesPerTask;
+            this.budget = budget;
+        }
+
+        @Override
+        protected String compute() {
+
+            if (endPage - startPage + 1 > pagesPerTask) {
+                int middle = (startPage + endPage) / 2;
+                PageRangeTask right = new PageRangeTask(data, credentials, pages, middle + 1, endPage, pagesPerTask, budget);
+                right.fork();
+
+                // the right half is always finished before returning, so no task still reads
+                // the buffer once the extraction is over (it may be unmapped after that), even
+                // when the left half fails with an Error (i.e. StackOverflowError on a deep page)
+                String left;
+                try {
+                    left = new PageRangeTask(data, credentials, pages, startPage, middle, pagesPerTask, budget).compute();
+                } catch (Throwable e) {
+                    right.quietlyJoin();
+                    throw e;
+                }
+                return left + right.join();
+            }
+
+            try (PDDocument document = load(data, credentials)) {
+                return extract(document, pages, startPage, endPage, false, budget);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+    }
+
 }
@@ -0,0 +1,23 @@
+package kpes.finapp.service;
+
+/**
+ * Decides which pages of a document carry statement data (i.e. summary, transactions,
+ * installments), so that promotional inserts and terms pages are not extracted in full.
+ * See {@link PDFBoxExtractor#setPageFilter(PageFilter)}.
+ *
+ * The text given to the filter comes from a cheap pass that is not sorted by position, so
+ * the words of a page may be in a different order than in the extracted text.
+ * Implementations that are used with {@link CachingTextExtractor} should describe their
+ * rules in {@code toString()}, since it is part of the extractor settings.
+ */
+@FunctionalInterface
+public interface PageFilter {
+
+    /**
+     * @param pageNumber 1-based page number
+     * @param pageText unsorted text of the page
+     * @return true if the page has to be extracted
+     */
+    public abstract boolean isRelevant(int pageNumber, CharSequence pageText);
+
+}
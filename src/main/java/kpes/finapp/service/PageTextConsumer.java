@@ -0,0 +1,18 @@
+package kpes.finapp.service;
+
+/**
+ * Receives the text of a document one page at a time from a {@link StreamingTextExtractor}
+ */
+@FunctionalInterface
+public interface PageTextConsumer {
+
+    /**
+     * Called once for each page, in page order
+     * @param pageNumber 1-based page number
+     * @param pageText text of the page. The buffer behind it is reused for the next page,
+     *                 so copy it if it is needed after this method returns
+     * @return true to continue with the next page, false to stop the extraction
+     */
+    public abstract boolean acceptPage(int pageNumber, CharSequence pageText);
+
+}
@@ -0,0 +1,245 @@
+package kpes.finapp.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps fully parsed {@link BPICreditStatement}s on disk in a compact binary format, so a
+ * statement that is opened again is restored without extracting and parsing its text again.
+ *
+ * Statements are looked up by the SHA-256 of the file content and the credentials, together
+ * with {@link BPICreditStatement#PARSER_VERSION}. Once the parser version changes, the
+ * statements kept by the old parser are not used anymore and are removed. Only files named
+ * like the entries of this class are removed, other files in the directory are kept.
+ *
+ * A restored statement has the dates, the summary, the transactions, the installment
+ * transactions and the Unbilled Installment Amount of the stored one, but not its raw text.
+ *
+ * The format is, with the encodings of {@link DataOutput}:
+ *
+ * <pre>
+ * int magic "BPIS", short format version, int parser version
+ * int statement date, int due date (epoch days)
+ * long minimum amount due, previous balance, total credits, total debits, total amount due,
+ *      unbilled installment amount (centavos)
+ * int count, then per transaction: int date, int post date, long amount, UTF description
+ * int count, then per installment: int date, int last payment date, long amount,
+ *      long remaining balance, UTF description
+ * </pre>
+ * @author Krizzia Santillan
+ */
+public class ParsedStatementCache {
+
+    private static final int MAGIC = 0x42504953;
+    private static final short FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".bin";
+
+    // name of an entry, see entryFor. Other files in the directory are never touched.
+    private static final Pattern ENTRY_NAME = Pattern.compile("[0-9a-f]{64}-v(\\d+)\\.bin");
+
+    private final Path directory;
+    private final int parserVersion;
+
+    /**
+     * @param directory - where the parsed statements are stored, created if it does not exist
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public ParsedStatementCache(Path directory) throws IOException {
+        this(directory, BPICreditStatement.PARSER_VERSION);
+    }
+
+    ParsedStatementCache(Path directory, int parserVersion) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.parserVersion = parserVersion;
+        removeOtherVersions();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Restores the parsed statement of a file
+     * @param file - the Bank Statement PDF file
+     * @param credentials - password used for the file
+     * @return the restored statement, null if the file was not parsed with the current parser version
+     * @throws IOException if the file or the cache directory cannot be read
+     */
+    public BPICreditStatement load(Path file, String credentials) throws IOException {
+        Path entry = entryFor(file, credentials);
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(entry);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        try {
+            BPICreditStatement statement = read(new DataInputStream(new ByteArrayInputStream(bytes)), parserVersion);
+            if (statement != null) return statement;
+        } catch (EOFException | IllegalArgumentException | DateTimeException e) {
+            // cut short or not written by this class, parse again
+        }
+
+        Files.deleteIfExists(entry);
+        return null;
+    }
+
+    /**
+     * Stores a parsed statement of a file
+     * @param file - the Bank Statement PDF file
+     * @param credentials - password used for the file
+     * @param statement - the statement parsed from the file
+     * @throws IOException if the file cannot be read or the statement cannot be written
+     * @throws IllegalArgumentException if the statement is not parsed
+     */
+    public void store(Path file, String credentials, BPICreditStatement statement) throws IOException {
+        if (!statement.isParsed()) throw new IllegalArgumentException("Statement is not parsed");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        write(statement, new DataOutputStream(bytes), parserVersion);
+
+        // written to a temporary file first so a statement is never read while it is only partly written
+        Path entry = entryFor(file, credentials);
+        Path temp = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /* <SHA-256 of the content and credentials>-v<parser version>.bin */
+    private Path entryFor(Path file, String credentials) throws IOException {
+        return directory.resolve(ContentHash.of(file, credentials) + versionSuffix(parserVersion));
+    }
+
+    private static String versionSuffix(int version) {
+        return "-v" + version + SUFFIX;
+    }
+
+    private void removeOtherVersions() throws IOException {
+        String current = Integer.toString(parserVersion);
+
+        try (Stream<Path> listing = Files.list(directory)) {
+            for (Path entry : (Iterable<Path>) listing::iterator) {
+                Matcher name = ENTRY_NAME.matcher(entry.getFileName().toString());
+                if (name.matches() && !name.group(1).equals(current)) Files.deleteIfExists(entry);
+            }
+        }
+    }
+
+    static void write(BPICreditStatement statement, DataOutput out, int parserVersion) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeInt(parserVersion);
+
+        writeDate(out, statement.getStatementDate());
+        writeDate(out, statement.getDueDate());
+        out.writeLong(statement.getMinAmountDueCents());
+        out.writeLong(statement.getBeginningBalanceCents());
+        out.writeLong(statement.getTotalCreditsCents());
+        out.writeLong(statement.getTotalDebitsCents());
+        out.writeLong(statement.getEndingBalanceCents());
+        out.writeLong(statement.getUnbilledInstallmentAmtCents());
+
+        List<AbstractTransaction> transactions = statement.getTransactions();
+        out.writeInt(transactions.size());
+        for (AbstractTransaction txn : transactions) {
+            if (!(txn instanceof CreditTransaction)) {
+                throw new IllegalArgumentException("Unsupported transaction type " + txn.getClass().getName());
+            }
+            CreditTransaction credit = (CreditTransaction) txn;
+            writeDate(out, credit.getTransactionDate());
+            writeDate(out, credit.getPostDate());
+            out.writeLong(credit.getAmountCents());
+            out.writeUTF(credit.getDescription());
+        }
+
+        List<AbstractTransaction> installments = statement.getInstallmentTxns();
+        out.writeInt(installments.size());
+        for (AbstractTransaction txn : installments) {
+            if (!(txn instanceof InstallmentTransaction)) {
+                throw new IllegalArgumentException("Unsupported transaction type " + txn.getClass().getName());
+            }
+            InstallmentTransaction installment = (InstallmentTransaction) txn;
+            writeDate(out, installment.getTransactionDate());
+            writeDate(out, installment.getLastPaymentDate());
+            out.writeLong(installment.getAmountCents());
+            out.writeLong(installment.getRemainingBalCents());
+            out.writeUTF(installment.getDescription());
+        }
+    }
+
+    /*
+    * Returns null when the entry was written with another format or parser version.
+    * Throws IllegalArgumentException when the entry is not a parsed statement.
+    */
+    static BPICreditStatement read(DataInput in, int parserVersion) throws IOException {
+        if (in.readInt() != MAGIC) throw new IllegalArgumentException("Not a parsed statement");
+        if (in.readShort() != FORMAT_VERSION || in.readInt() != parserVersion) return null;
+
+        BPICreditStatement statement = new BPICreditStatement();
+        statement.statementDate = readDate(in);
+        statement.dueDate = readDate(in);
+        statement.minAmountDue = in.readLong();
+        statement.beginningBalance = in.readLong();
+        statement.totalCredits = in.readLong();
+        statement.totalDebits = in.readLong();
+        statement.endingBalance = in.readLong();
+        statement.setUnbilledInstallmentAmtCents(in.readLong());
+
+        int count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            LocalDate txnDate = readDate(in);
+            LocalDate postDate = readDate(in);
+            long amount = in.readLong();
+            statement.transactions.add(CreditTransaction.ofCents(txnDate, in.readUTF(), amount, postDate));
+        }
+
+        count = readCount(in);
+        for (int i = 0; i < count; i++) {
+            LocalDate txnDate = readDate(in);
+            LocalDate lastPaymentDate = readDate(in);
+            long amount = in.readLong();
+            long remainingBal = in.readLong();
+            statement.getInstallmentTxns().add(InstallmentTransaction.ofCents(txnDate, in.readUTF(), amount, lastPaymentDate, remainingBal));
+        }
+
+        statement.parsed = true;
+        return statement;
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeInt(Math.toIntExact(date.toEpochDay()));
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        return LocalDate.ofEpochDay(in.readInt());
+    }
+
+    private static int readCount(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) throw new IllegalArgumentException("Not a parsed statement");
+        return count;
+    }
+
+}
@@ -0,0 +1,176 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.pdmodel.encryption.PDEncryption;
+import org.apache.pdfbox.pdmodel.encryption.StandardSecurityHandler;
+
+/**
+ * Finds which of a few candidate passwords (i.e. the birthdate variants and card digits
+ * a bank uses) opens a protected statement, without loading the document once for every
+ * wrong candidate.
+ *
+ * Only the cross-reference table, the trailer and the encryption dictionary are read, then
+ * every candidate is checked against the owner and user keys of the encryption dictionary,
+ * which is a few hashes per candidate. For a file, only those parts of the file are read.
+ * Documents that cannot be checked this way (i.e. certificate encryption, or a damaged
+ * cross-reference table) are opened with each candidate instead.
+ * @author Krizzia Santillan
+ */
+public final class PasswordResolver {
+
+    private PasswordResolver() {
+    }
+
+    /**
+     * @param file - the PDF file
+     * @param candidates - passwords to try, in order
+     * @return the first candidate that opens the file, or the first candidate if the file is not encrypted
+     * @throws IOException if none of the candidates opens the file or the file cannot be read
+     * @throws IllegalArgumentException if there are no candidates
+     */
+    public static String resolve(Path file, List<String> candidates) throws IOException {
+        try (RandomAccessRead source = new RandomAccessReadBufferedFile(file)) {
+            return resolve(source, candidates, password -> Loader.loadPDF(file.toFile(), password));
+        }
+    }
+
+    /**
+     * @param data - content of the PDF file
+     * @param candidates - passwords to try, in order
+     * @return the first candidate that opens the document, or the first candidate if the document is not encrypted
+     * @throws IOException if none of the candidates opens the document or the data is not a readable PDF document
+     * @throws IllegalArgumentException if there are no candidates
+     */
+    public static String resolve(byte[] data, List<String> candidates) throws IOException {
+        try (RandomAccessRead source = new RandomAccessReadBuffer(data)) {
+            return resolve(source, candidates, password -> Loader.loadPDF(data, password));
+        }
+    }
+
+    private static String resolve(RandomAccessRead source, List<String> candidates, Opener opener) throws IOException {
+        if (candidates == null || candidates.isEmpty()) throw new IllegalArgumentException("No passwords to try");
+
+        EncryptionProbe probe = new EncryptionProbe(source);
+        try {
+            probe.parse().close();
+        } catch (EncryptionFound e) {
+            // stopped before decrypting, see EncryptionProbe
+        }
+
+        if (probe.reached && probe.encryption == null) return candidates.get(0);
+
+        if (probe.reached) {
+            PDEncryption encryption = new PDEncryption(probe.encryption);
+            if (StandardSecurityHandler.FILTER.equals(encryption.getFilter())) {
+                return check(encryption, firstId(probe.documentId), candidates);
+            }
+        }
+
+        return open(opener, candidates);
+    }
+
+    /* Same checks as StandardSecurityHandler.prepareForDecryption, without computing the key */
+    private static String check(PDEncryption encryption, byte[] documentId, List<String> candidates) throws IOException {
+        StandardSecurityHandler handler = new StandardSecurityHandler();
+        byte[] user = encryption.getUserKey();
+        byte[] owner = encryption.getOwnerKey();
+        int permissions = encryption.getPermissions();
+        int revision = encryption.getRevision();
+        int keyLength = encryption.getVersion() == 1 ? 5 : encryption.getLength() / 8;
+        boolean encryptMetadata = encryption.isEncryptMetaData();
+
+        for (String candidate : candidates) {
+            String password = candidate == null ? "" : candidate;
+            if (handler.isOwnerPassword(password, user, owner, permissions, documentId, revision, keyLength, encryptMetadata)
+                    || handler.isUserPassword(password, user, owner, permissions, documentId, revision, keyLength, encryptMetadata)) {
+                return candidate;
+            }
+        }
+
+        throw noMatch(candidates);
+    }
+
+    private static String open(Opener opener, List<String> candidates) throws IOException {
+        for (String candidate : candidates) {
+            PDDocument document;
+            try {
+                document = opener.open(candidate == null ? "" : candidate);
+            } catch (InvalidPasswordException e) {
+                // try the next one
+                continue;
+            }
+            document.close();
+            return candidate;
+        }
+
+        throw noMatch(candidates);
+    }
+
+    private static IOException noMatch(List<String> candidates) {
+        return new IOException("None of the " + candidates.size() + " passwords opens the document");
+    }
+
+    private static byte[] firstId(COSArray documentId) {
+        if (documentId != null && documentId.size() > 0) {
+            COSBase first = documentId.getObject(0);
+            if (first instanceof COSString) return ((COSString) first).getBytes();
+        }
+        return new byte[0];
+    }
+
+    @FunctionalInterface
+    private interface Opener {
+        PDDocument open(String password) throws IOException;
+    }
+
+    /*
+    * Parses until the decryption would be prepared with a password, keeps the encryption
+    * dictionary and the document ID, and stops there
+    */
+    private static final class EncryptionProbe extends PDFParser {
+
+        private boolean reached;
+        private COSDictionary encryption;
+        private COSArray documentId;
+
+        EncryptionProbe(RandomAccessRead source) throws IOException {
+            super(source);
+        }
+
+        @Override
+        protected void prepareDecryption() throws IOException {
+            reached = true;
+            encryption = document.getEncryptionDictionary();
+            documentId = document.getDocumentID();
+            throw new EncryptionFound();
+        }
+
+    }
+
+    private static final class EncryptionFound extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        // only used to stop the parser, no stack trace needed
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+    }
+
+}
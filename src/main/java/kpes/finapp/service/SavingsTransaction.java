@@ -22,7 +22,7 @@ public class SavingsTransaction extends AbstractTransaction {
 
     @Override
     public String toString() {
-        return String.format("%tD - %s - %s - %,.2f", transactionDate, referenceNum, description, amount);
+        return String.format("%tD - %s - %s - %,.2f", transactionDate, referenceNum, description, Money.toDecimal(amount));
     }
 
 }
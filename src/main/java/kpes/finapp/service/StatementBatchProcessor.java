@@ -0,0 +1,169 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import kpes.finapp.service.StatementBatchResult.Status;
+
+/**
+ * Processes a batch of bank statement files concurrently. Each file goes through
+ * load, extract, parse and validate on its own statement object, and at most
+ * {@code parallelism} files are processed at the same time.
+ *
+ * The {@link TextExtractor} is shared by all worker threads so it must be safe to
+ * call concurrently ({@link PDFBoxExtractor} is, since it keeps no state between calls).
+ * Give the extractor {@link ExtractionLimits} so that one pathological file ends as
+ * {@link Status#LIMIT_EXCEEDED} instead of holding a worker for the rest of the batch.
+ * @author Krizzia Santillan
+ */
+public class StatementBatchProcessor<T extends AbstractStatement> {
+
+    private final Supplier<T> statementFactory;
+    private final TextExtractor<Path, String> extractor;
+    private final int parallelism;
+
+    /**
+     * Creates a processor that uses all available processors
+     * @param statementFactory - creates a new, empty statement for each file (i.e. {@code BPICreditStatement::new})
+     * @param extractor - {@link TextExtractor} implementation shared by all workers
+     */
+    public StatementBatchProcessor(Supplier<T> statementFactory, TextExtractor<Path, String> extractor) {
+        this(statementFactory, extractor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param statementFactory - creates a new, empty statement for each file (i.e. {@code BPICreditStatement::new})
+     * @param extractor - {@link TextExtractor} implementation shared by all workers
+     * @param parallelism - maximum number of files processed at the same time
+     */
+    public StatementBatchProcessor(Supplier<T> statementFactory, TextExtractor<Path, String> extractor, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+        this.statementFactory = statementFactory;
+        this.extractor = extractor;
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Processes all PDF files directly inside a directory, in file name order
+     * @param directory - directory containing the Bank Statement PDF files
+     * @param pw - password used for all files in the directory
+     * @return one result per PDF file, in file name order
+     * @throws IOException if the directory cannot be listed
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+     */
+    public List<StatementBatchResult<T>> processDirectory(Path directory, String pw) throws IOException, InterruptedException {
+        if (!Files.isDirectory(directory)) throw new IllegalArgumentException("Directory does not exist");
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile)
+                            .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                            .sorted()
+                            .collect(Collectors.toList());
+        }
+
+        return process(files, pw);
+    }
+
+    /**
+     * Processes UNENCRYPTED files in a directory. {@code pw} defaults to empty String
+     *
+     * @see #processDirectory(Path, String)
+     */
+    public List<StatementBatchResult<T>> processDirectory(Path directory) throws IOException, InterruptedException {
+        return processDirectory(directory, "");
+    }
+
+    /**
+     * Processes the given files concurrently
+     * @param files - paths to the Bank Statement PDF files
+     * @param pw - password used for all files
+     * @return one result per file, in the same order as {@code files}
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+     */
+    public List<StatementBatchResult<T>> process(List<Path> files, String pw) throws InterruptedException {
+        List<StatementBatchResult<T>> results = new ArrayList<>(files.size());
+        if (files.isEmpty()) return results;
+
+        List<Callable<StatementBatchResult<T>>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(() -> processFile(file, pw));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, files.size()));
+        try {
+            List<Future<StatementBatchResult<T>>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(getResult(futures.get(i), files.get(i)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return results;
+    }
+
+    /**
+     * Processes UNENCRYPTED files. {@code pw} defaults to empty String
+     *
+     * @see #process(List, String)
+     */
+    public List<StatementBatchResult<T>> process(List<Path> files) throws InterruptedException {
+        return process(files, "");
+    }
+
+    /*
+    * Runs every step for one file, turning the failure of a step into its result status.
+    * A new statement object is used per file so workers never share parser state.
+    */
+    StatementBatchResult<T> processFile(Path file, String pw) {
+        T statement = statementFactory.get();
+
+        // load + extract
+        try {
+            statement.loadStatementText(file, extractor, pw);
+        } catch (IllegalArgumentException e) {
+            return new StatementBatchResult<>(file, Status.REJECTED, null, e);
+        } catch (ExtractionLimitExceededException e) {
+            return new StatementBatchResult<>(file, Status.LIMIT_EXCEEDED, null, e);
+        } catch (IOException e) {
+            return new StatementBatchResult<>(file, Status.EXTRACTION_FAILED, null, e);
+        }
+
+        // parse + validate
+        try {
+            statement.parseRawText();
+        } catch (AssertionError e) {
+            return new StatementBatchResult<>(file, Status.VALIDATION_FAILED, null, e);
+        } catch (RuntimeException e) {
+            return new StatementBatchResult<>(file, Status.PARSE_FAILED, null, e);
+        }
+
+        return new StatementBatchResult<>(file, Status.PARSED, statement, null);
+    }
+
+    private StatementBatchResult<T> getResult(Future<StatementBatchResult<T>> future, Path file) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // only Errors other than AssertionError get here, i.e. OutOfMemoryError on a huge file
+            return new StatementBatchResult<>(file, Status.EXTRACTION_FAILED, null, e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package kpes.finapp.service;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of processing one file in a {@link StatementBatchProcessor} run
+ * @author Krizzia Santillan
+ */
+public class StatementBatchResult<T extends AbstractStatement> {
+
+    /**
+     * Step where the processing of a file stopped
+     */
+    public enum Status {
+        PARSED,             // extracted, parsed and validated
+        REJECTED,           // missing file, not a PDF file, or not a Bank Statement
+        EXTRACTION_FAILED,  // the extractor could not read or decrypt the file
+        LIMIT_EXCEEDED,     // the file is over the size, page, text or time limit of the extractor, see ExtractionLimits
+        PARSE_FAILED,       // extracted text does not follow the expected statement format
+        VALIDATION_FAILED   // parsed data is not balanced or transactions are incomplete
+    }
+
+    private final Path path;
+    private final Status status;
+    private final T statement;
+    private final Throwable error;
+
+    StatementBatchResult(Path path, Status status, T statement, Throwable error) {
+        this.path = path;
+        this.status = status;
+        this.statement = statement;
+        this.error = error;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the parsed statement when the status is {@link Status#PARSED}, null otherwise
+     */
+    public T getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return the cause of the failure, null when the status is {@link Status#PARSED}
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isParsed() {
+        return status == Status.PARSED;
+    }
+
+    @Override
+    public String toString() {
+        if (error == null) return String.format("%s - %s", path, status);
+        return String.format("%s - %s - %s", path, status, error.getMessage());
+    }
+
+}
@@ -0,0 +1,420 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.pdfbox.contentstream.operator.DrawObject;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+/**
+ * {@link PDFTextStripper} used by {@link PDFBoxExtractor}, sorted by position like before.
+ * Adds a page hook so the text can be handed out one page at a time, an option
+ * to leave out the spaces while the text is written, a set of pages to extract,
+ * table rows split into columns by the x position of the text, a text-only mode, and
+ * checks of the {@link ExtractionLimits} of the extraction.
+ */
+class StatementTextStripper extends PDFTextStripper {
+
+    private PageTextConsumer pageConsumer;
+    private StringWriter pageBuffer;
+    private boolean stopped;
+    private boolean stripSpaces;
+
+    // put the text in line order by baseline bins instead of sorting it, see setLineBinning
+    private boolean lineBinning;
+    // true while writePage writes binned text, until the article starts
+    private boolean binnedPage;
+    private boolean inArticle;
+
+    // pages to extract (1-based), null for all pages
+    private BitSet pages;
+
+    // left edges of the table columns, null when no rows are collected
+    private float[] columnStarts;
+    private List<TableRow> rows;
+    private StringBuilder[] cells;
+    private boolean wordEnded;
+
+    // time and characters left, null for no limits
+    private ExtractionLimits.Budget budget;
+
+    StatementTextStripper() {
+        super();
+        setSortByPosition(true);
+    }
+
+    /**
+     * When enabled, spaces are dropped as the text is written, so the output is the
+     * same as removing all spaces from the normal output but without a second copy
+     * of the text. Line and page separators are kept.
+     * @param stripSpaces - true to leave out all spaces
+     */
+    void setStripSpaces(boolean stripSpaces) {
+        this.stripSpaces = stripSpaces;
+    }
+
+    /**
+     * When enabled, the text of each page is put in line order by grouping it into bins by
+     * baseline (see {@link #orderByLines(List)}), and the sort by position of
+     * {@link PDFTextStripper} is skipped. The bins are filled in one pass and each line is
+     * sorted on its own, instead of sorting all the text of the page with
+     * {@link org.apache.pdfbox.text.TextPositionComparator}. Off by default.
+     * @param lineBinning - true to order the text by baseline bins
+     */
+    void setLineBinning(boolean lineBinning) {
+        this.lineBinning = lineBinning;
+    }
+
+    /**
+     * When enabled, form XObjects that cannot show text of their own (i.e. logos and card art)
+     * are skipped, see {@link TextOnlyDrawObject}
+     * @param textOnly - true to skip the forms without text
+     */
+    void setTextOnly(boolean textOnly) {
+        // replaces the "Do" operator of PDFTextStripper
+        addOperator(textOnly ? new TextOnlyDrawObject(this) : new DrawObject(this));
+    }
+
+    /**
+     * Only the given pages are processed, the others are skipped before their text is
+     * read, so they do not get a page separator either
+     * @param pages - 1-based numbers of the pages to extract, null for all pages
+     */
+    void setPages(BitSet pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * The time is checked before each page and the characters as they are written, so an
+     * extraction over its limits stops with an {@link ExtractionLimitExceededException}
+     * @param budget - limits of the current extraction, null for no limits
+     */
+    void setBudget(ExtractionLimits.Budget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Collects the lines of the extracted pages as {@link TableRow}s, with each glyph put in
+     * the last column that starts at or before its x position. Glyphs left of the first
+     * column are put in the first column. The text is extracted as usual.
+     * @param columnStarts - left edge of each column in points, in ascending order
+     */
+    void setColumns(float... columnStarts) {
+        if (columnStarts.length == 0) throw new IllegalArgumentException("At least one column is needed");
+        for (int i = 1; i < columnStarts.length; i++) {
+            if (columnStarts[i] <= columnStarts[i - 1]) throw new IllegalArgumentException("Columns must be in ascending order");
+        }
+
+        this.columnStarts = columnStarts.clone();
+        this.rows = new ArrayList<>();
+        this.cells = new StringBuilder[columnStarts.length];
+        for (int i = 0; i < cells.length; i++) cells[i] = new StringBuilder();
+    }
+
+    /**
+     * @return rows of the pages extracted so far, in page order, empty if no columns are set
+     */
+    List<TableRow> getRows() {
+        return rows == null ? new ArrayList<>() : rows;
+    }
+
+    /**
+     * Cheap pass over the document that finds the pages to extract. The text of each page
+     * is read without sorting by position and without removing overlapping duplicate text,
+     * which are the costly parts of the layout analysis, and given to {@code filter}.
+     * @param document - loaded PDF document
+     * @param filter - decides which pages to extract
+     * @param budget - limits of the extraction, checked before each page, null for no limits
+     * @return 1-based numbers of the pages that {@code filter} keeps
+     * @throws IOException if a page cannot be processed or the time is up
+     */
+    static BitSet findPages(PDDocument document, PageFilter filter, ExtractionLimits.Budget budget) throws IOException {
+        PageScanner scanner = new PageScanner(filter, budget);
+        scanner.writeText(document, scanner.pageBuffer);
+        return scanner.relevant;
+    }
+
+    /**
+     * Extracts the document page by page. Each page is written to one buffer
+     * that is passed to {@code consumer} and cleared once the consumer returns.
+     * @param document - loaded PDF document
+     * @param consumer - receives the text of each page
+     * @throws IOException if a page cannot be processed
+     */
+    void streamText(PDDocument document, PageTextConsumer consumer) throws IOException {
+        pageConsumer = consumer;
+        pageBuffer = new StringWriter();
+        stopped = false;
+
+        try {
+            writeText(document, pageBuffer);
+        } finally {
+            pageConsumer = null;
+            pageBuffer = null;
+        }
+    }
+
+    @Override
+    public void processPage(PDPage page) throws IOException {
+        // the consumer asked to stop, skip the remaining pages
+        if (stopped) return;
+        if (pages != null && !pages.get(getCurrentPageNo())) return;
+        if (budget != null) budget.checkPage();
+        super.processPage(page);
+    }
+
+    @Override
+    protected void writePage() throws IOException {
+        if (!lineBinning || !super.getSortByPosition()) {
+            super.writePage();
+            return;
+        }
+
+        for (List<TextPosition> article : charactersByArticle) {
+            orderByLines(article);
+            removeContainedSpaces(article);
+        }
+
+        binnedPage = true;
+        try {
+            super.writePage();
+        } finally {
+            binnedPage = false;
+            inArticle = false;
+        }
+    }
+
+    /*
+    * PDFTextStripper.writePage asks this once per article before startArticle, to decide
+    * whether to sort the article, and then for every glyph, to use the coordinates adjusted
+    * to the text direction. A binned article is already in order, so only the first answer
+    * is false.
+    */
+    @Override
+    public boolean getSortByPosition() {
+        return super.getSortByPosition() && (!binnedPage || inArticle);
+    }
+
+    @Override
+    protected void startArticle() throws IOException {
+        inArticle = true;
+        super.startArticle();
+    }
+
+    @Override
+    protected void endArticle() throws IOException {
+        super.endArticle();
+        inArticle = false;
+    }
+
+    /**
+     * Puts the text in line order: the text is put in bins by direction and by baseline
+     * rounded to a point, in one pass. Bins that are 1 point apart, or where the text of the
+     * lower bin reaches above the baseline of the upper bin (i.e. a larger font on the same
+     * line), are one line, like {@link org.apache.pdfbox.text.TextPositionComparator} does.
+     * Lines go from top to bottom and the text of a line from left to right.
+     * @param text - text of one article of a page, reordered in place
+     */
+    static void orderByLines(List<TextPosition> text) {
+        if (text.size() < 2) return;
+
+        // key is the direction, then the baseline rounded to a point
+        Map<Long, Bin> bins = new TreeMap<>();
+        for (TextPosition position : text) {
+            long key = ((long) Math.round(position.getDir()) << 32) + Math.round(position.getYDirAdj());
+            bins.computeIfAbsent(key, k -> new Bin()).add(position);
+        }
+
+        Comparator<TextPosition> byX = Comparator.comparingDouble(TextPosition::getXDirAdj);
+        List<TextPosition> line = new ArrayList<>();
+        int index = 0;
+        long previousKey = 0;
+
+        for (Map.Entry<Long, Bin> entry : bins.entrySet()) {
+            long key = entry.getKey();
+            Bin bin = entry.getValue();
+            boolean sameDirection = (key >> 32) == (previousKey >> 32);
+            boolean sameLine = key - previousKey <= 1 || bin.top <= (int) previousKey;
+            if (!line.isEmpty() && !(sameDirection && sameLine)) {
+                index = writeLine(text, line, index, byX);
+            }
+            line.addAll(bin.text);
+            previousKey = key;
+        }
+        writeLine(text, line, index, byX);
+    }
+
+    /* Sorts a line by x, mostly in order already, and writes it back from index */
+    private static int writeLine(List<TextPosition> text, List<TextPosition> line, int index, Comparator<TextPosition> byX) {
+        line.sort(byX);
+        for (TextPosition position : line) text.set(index++, position);
+        line.clear();
+        return index;
+    }
+
+    /* Same as PDFTextStripper does after its sort: a space inside the previous glyph is dropped */
+    private static void removeContainedSpaces(List<TextPosition> text) {
+        TextPosition previous = null;
+        Iterator<TextPosition> positions = text.iterator();
+        while (positions.hasNext()) {
+            TextPosition position = positions.next();
+            if (previous != null && " ".equals(position.getUnicode()) && previous.completelyContains(position)) {
+                positions.remove();
+            } else {
+                previous = position;
+            }
+        }
+    }
+
+    /* Text of one baseline, and the top of its highest glyph */
+    private static final class Bin {
+
+        private final List<TextPosition> text = new ArrayList<>();
+        private float top = Float.MAX_VALUE;
+
+        void add(TextPosition position) {
+            text.add(position);
+            top = Math.min(top, position.getYDirAdj() - position.getHeightDir());
+        }
+
+    }
+
+    @Override
+    protected void writeWordSeparator() throws IOException {
+        wordEnded = true;
+        // the word separator is a space, keep it in the layout analysis but not in the output
+        if (!stripSpaces) super.writeWordSeparator();
+    }
+
+    @Override
+    protected void writeString(String text, List<TextPosition> textPositions) throws IOException {
+        if (columnStarts != null) addToCells(textPositions);
+        super.writeString(text, textPositions);
+    }
+
+    @Override
+    protected void writeLineSeparator() throws IOException {
+        endRow();
+        super.writeLineSeparator();
+    }
+
+    @Override
+    protected void writePageEnd() throws IOException {
+        endRow();
+        super.writePageEnd();
+    }
+
+    /* Puts each glyph in its column, a space or a word separator before it ends the previous word */
+    private void addToCells(List<TextPosition> textPositions) {
+        for (TextPosition position : textPositions) {
+            String unicode = position.getUnicode();
+            if (unicode.isBlank()) {
+                wordEnded = true;
+                continue;
+            }
+
+            StringBuilder cell = cells[column(position.getXDirAdj())];
+            if (wordEnded && cell.length() > 0) cell.append(' ');
+            cell.append(unicode);
+            wordEnded = false;
+        }
+    }
+
+    /* Last column that starts at or before x, the first column for text left of all columns */
+    private int column(float x) {
+        int column = 0;
+        while (column + 1 < columnStarts.length && columnStarts[column + 1] <= x) column++;
+        return column;
+    }
+
+    /* Adds the row of the current line, unless the line has no text */
+    private void endRow() {
+        wordEnded = false;
+        if (columnStarts == null) return;
+
+        boolean empty = true;
+        String[] texts = new String[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            texts[i] = cells[i].toString();
+            empty &= texts[i].isEmpty();
+            cells[i].setLength(0);
+        }
+
+        if (!empty) rows.add(new TableRow(getCurrentPageNo(), texts));
+    }
+
+    @Override
+    protected void writeString(String text) throws IOException {
+        if (budget != null) budget.addChars(text.length());
+
+        if (!stripSpaces) {
+            super.writeString(text);
+            return;
+        }
+
+        // write the runs between spaces directly, without building a new String
+        int runStart = 0;
+        int space = text.indexOf(' ');
+        while (space >= 0) {
+            output.write(text, runStart, space - runStart);
+            runStart = space + 1;
+            space = text.indexOf(' ', runStart);
+        }
+        output.write(text, runStart, text.length() - runStart);
+    }
+
+    @Override
+    protected void endPage(PDPage page) throws IOException {
+        super.endPage(page);
+
+        if (pageConsumer != null) {
+            StringBuffer pageText = pageBuffer.getBuffer();
+            stopped = !pageConsumer.acceptPage(getCurrentPageNo(), pageText);
+            pageText.setLength(0);
+        }
+    }
+
+    /* Gives the unsorted text of each page to a PageFilter */
+    private static class PageScanner extends PDFTextStripper {
+
+        private final PageFilter filter;
+        private final ExtractionLimits.Budget budget;
+        private final StringWriter pageBuffer = new StringWriter();
+        private final BitSet relevant = new BitSet();
+
+        PageScanner(PageFilter filter, ExtractionLimits.Budget budget) {
+            super();
+            this.filter = filter;
+            this.budget = budget;
+            setSortByPosition(false);
+            setSuppressDuplicateOverlappingText(false);
+        }
+
+        @Override
+        public void processPage(PDPage page) throws IOException {
+            if (budget != null) budget.checkPage();
+            super.processPage(page);
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+
+            StringBuffer pageText = pageBuffer.getBuffer();
+            if (filter.isRelevant(getCurrentPageNo(), pageText)) relevant.set(getCurrentPageNo());
+            pageText.setLength(0);
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+
+/**
+ * Text extractor that hands the text to a {@link PageTextConsumer} page by page
+ * instead of returning the whole document as one String. Only one page of text
+ * is held at a time, and the consumer can start working (or stop the extraction)
+ * before the last page is read.
+ */
+@FunctionalInterface
+public interface StreamingTextExtractor<T, S> {
+
+    /**
+     * Streaming text extractor from an external file
+     * @param forExtraction external file from where the text will be extracted
+     * @param credentials to use for opening encrypted files
+     * @param consumer receives the text of each page in page order
+     * @throws IOException if there is a problem in accessing the external file
+     */
+    public abstract void extractText(T forExtraction, S credentials, PageTextConsumer consumer) throws IOException;
+
+}
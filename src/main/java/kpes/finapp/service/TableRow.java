@@ -0,0 +1,59 @@
+package kpes.finapp.service;
+
+import java.util.Arrays;
+
+/**
+ * One line of a page split into table columns by the x position of its text, see
+ * {@link PDFBoxExtractor#extractRows(java.nio.file.Path, String, float...)}.
+ * Words in the same cell are separated by one space.
+ * @author Krizzia Santillan
+ */
+public final class TableRow {
+
+    private final int page;
+    private final String[] cells;
+
+    /**
+     * @param page - page of the row, starting at 1
+     * @param cells - text of each column, empty for a column without text
+     */
+    public TableRow(int page, String... cells) {
+        this.page = page;
+        this.cells = cells.clone();
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    /**
+     * @param column - index of the column, starting at 0
+     * @return text of the column, empty if the column has no text
+     */
+    public String getCell(int column) {
+        return cells[column];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof TableRow)) return false;
+        TableRow other = (TableRow) obj;
+        return page == other.page && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * page + Arrays.hashCode(cells);
+    }
+
+    @Override
+    public String toString() {
+        return "TableRow[page=" + page + ", cells=" + Arrays.toString(cells) + "]";
+    }
+
+}
@@ -0,0 +1,32 @@
+package kpes.finapp.service;
+
+import java.util.List;
+
+/**
+ * Text and table rows of the same extraction, see
+ * {@link PDFBoxExtractor#extractTable(java.nio.file.Path, String, float...)}.
+ * @author Krizzia Santillan
+ */
+public final class TableText {
+
+    private final String text;
+    private final List<TableRow> rows;
+
+    /**
+     * @param text - text of the document, as from {@link PDFBoxExtractor#extractText(java.nio.file.Path, String)}
+     * @param rows - rows of the same pages, in page order
+     */
+    public TableText(String text, List<TableRow> rows) {
+        this.text = text;
+        this.rows = rows;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<TableRow> getRows() {
+        return rows;
+    }
+
+}
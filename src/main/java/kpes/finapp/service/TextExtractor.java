@@ -13,5 +13,18 @@ public interface TextExtractor<T, S> {
      * @throws IOException if there is a problem in accessing the external file
      */
     public abstract String extractText(T forExtraction, S credentials) throws IOException;
+
+    /**
+     * Cheap preview of the text, i.e. only the first page, used to reject a file that is not
+     * a statement before extracting all of it. The preview has to contain the part of the
+     * text that identifies the statement (see {@link AbstractStatement#createPattern()}).
+     * @param forExtraction external file from where the text will be extracted
+     * @param credentials to use for opening encrypted files
+     * @return the beginning of the text, or null if this extractor cannot preview (the default)
+     * @throws IOException if there is a problem in accessing the external file
+     */
+    public default String probeText(T forExtraction, S credentials) throws IOException {
+        return null;
+    }
     
 }
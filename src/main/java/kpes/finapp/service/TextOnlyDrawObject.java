@@ -0,0 +1,60 @@
+package kpes.finapp.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.pdfbox.contentstream.PDFStreamEngine;
+import org.apache.pdfbox.contentstream.operator.DrawObject;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+
+/**
+ * "Do" operator for text-only extraction. Image XObjects are already skipped by
+ * {@link DrawObject}, this also skips form XObjects that cannot show text of their own
+ * (i.e. a logo or card art drawn with paths and images), so their content streams are
+ * never parsed. A form is skipped when it has its own resources with no fonts and no
+ * other XObjects. The check reads the form dictionary only, no {@code PDFormXObject} is
+ * created for a skipped form.
+ *
+ * A form that shows text with the font set before it was drawn (without a font of its
+ * own) is skipped too, PDF writers do not normally do this.
+ * @author Krizzia Santillan
+ */
+class TextOnlyDrawObject extends DrawObject {
+
+    TextOnlyDrawObject(PDFStreamEngine context) {
+        super(context);
+    }
+
+    @Override
+    public void process(Operator operator, List<COSBase> operands) throws IOException {
+        if (!operands.isEmpty() && operands.get(0) instanceof COSName && isWithoutText((COSName) operands.get(0))) {
+            return;
+        }
+        super.process(operator, operands);
+    }
+
+    private boolean isWithoutText(COSName name) {
+        PDResources resources = getContext().getResources();
+        if (resources == null) return false;
+
+        COSDictionary xObjects = resources.getCOSObject().getCOSDictionary(COSName.XOBJECT);
+        if (xObjects == null) return false;
+
+        COSBase xObject = xObjects.getDictionaryObject(name);
+        if (!(xObject instanceof COSStream)) return false;
+
+        COSStream stream = (COSStream) xObject;
+        if (!COSName.FORM.equals(stream.getCOSName(COSName.SUBTYPE))) return false;
+
+        // a form without resources uses the resources of the page, which may have fonts
+        COSDictionary formResources = stream.getCOSDictionary(COSName.RESOURCES);
+        return formResources != null && !formResources.containsKey(COSName.FONT)
+                                        && !formResources.containsKey(COSName.XOBJECT);
+    }
+
+}
@@ -0,0 +1,280 @@
+package kpes.finapp.service;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * Finds the transactions of a BPI transaction listing (date, posting date, description, amount)
+ * in linear time. It gives the same matches, with the same groups 1 to 5, as
+ * {@link #TRANSACTION_REGEX} with {@link Matcher#find()}, but without backtracking the greedy
+ * {@code .+} of the description, which is quadratic on long lines.
+ *
+ * The text is scanned right to left once to find every offset where an amount starts, and
+ * where the description can end. After that, each possible start of a transaction is
+ * checked in constant time, and the candidates are tried from left to right like
+ * {@link Matcher#find()} does.
+ *
+ * Like {@link Matcher#region(int, int)}, the tokenizer can be limited to a region of the
+ * text, so a section of the statement is read in place. Offsets are those of the whole text.
+ * @author Krizzia Santillan
+ */
+final class TransactionTokenizer implements MatchResult {
+
+    static final String TRANSACTION_REGEX = "([a-zA-Z]{3,9}\\d{1,2})([a-zA-Z]{3,9}\\d{1,2})(.+\\D{2}(:\\d{2}/\\d{2})?)(-?(\\d{1,3},)*\\d{1,3}\\.\\d{2})";
+
+    private static final int GROUP_COUNT = 5;
+
+    private final CharSequence text;
+
+    // region [from, limit) of the text that is read, chars outside it are not seen
+    private final int from;
+    private final int limit;
+
+    // the arrays below are indexed by offset - from
+
+    // first line terminator at or after each offset (. does not match line terminators)
+    private final int[] lineEnds;
+
+    // end of the amount "(\d{1,3},)*\d{1,3}\.\d{2}" that starts at each offset, -1 if there is none
+    private final int[] amountEnds;
+
+    // largest p <= offset where ".+" can stop, that is "\D{2}(:\d{2}/\d{2})?" and an amount
+    // follow p, -1 if there is none
+    private final int[] lastDescriptionEnds;
+
+    // where the next find() starts
+    private int position;
+
+    // start and end offsets of groups 0 to 5, -1 when the group did not match
+    private final int[] groups = new int[2 * (GROUP_COUNT + 1)];
+    private boolean matched;
+
+    /**
+     * @param text - transaction listing, i.e. the part of the statement between the account
+     *               delimiter and S.I.P.BALANCESUMMARY
+     */
+    TransactionTokenizer(CharSequence text) {
+        this(text, 0, text.length());
+    }
+
+    /**
+     * @param text - statement text
+     * @param start - offset where the transaction listing starts
+     * @param end - offset after the last char of the transaction listing
+     * @throws IndexOutOfBoundsException if the region is not inside the text
+     */
+    TransactionTokenizer(CharSequence text, int start, int end) {
+        if (start < 0 || start > end || end > text.length()) {
+            throw new IndexOutOfBoundsException("Region [" + start + ", " + end + ") of text with length " + text.length());
+        }
+
+        this.text = text;
+        this.from = start;
+        this.limit = end;
+        this.position = start;
+        this.lineEnds = new int[end - start + 1];
+        this.amountEnds = new int[end - start + 1];
+        this.lastDescriptionEnds = new int[end - start + 1];
+
+        lineEnds[end - from] = end;
+        amountEnds[end - from] = -1;
+        int digitRunEnd = end;
+
+        for (int i = end - 1; i >= start; i--) {
+            char ch = text.charAt(i);
+            lineEnds[i - from] = isLineTerminator(ch) ? i : lineEnds[i + 1 - from];
+
+            if (!isDigit(ch)) {
+                amountEnds[i - from] = -1;
+                digitRunEnd = i;
+                continue;
+            }
+
+            // 1 to 3 digits, then either the decimal part or a comma and the next group
+            amountEnds[i - from] = -1;
+            if (digitRunEnd - i <= 3 && digitRunEnd < limit) {
+                int r = digitRunEnd;
+                if (text.charAt(r) == '.') {
+                    if (r + 2 < limit && isDigit(text.charAt(r + 1)) && isDigit(text.charAt(r + 2))) amountEnds[i - from] = r + 3;
+                } else if (text.charAt(r) == ',') {
+                    amountEnds[i - from] = amountEnds[r + 1 - from];
+                }
+            }
+        }
+
+        int last = -1;
+        for (int p = start; p <= end; p++) {
+            if (descriptionEndsAt(p)) last = p;
+            lastDescriptionEnds[p - from] = last;
+        }
+    }
+
+    /**
+     * Same as {@link Matcher#find()} with {@link #TRANSACTION_REGEX}: looks for the next
+     * transaction, starting at the end of the previous one
+     * @return true if a transaction was found
+     */
+    boolean find() {
+        int i = position;
+
+        while (i < limit) {
+            if (!isLetter(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            int runEnd = i;
+            while (runEnd < limit && isLetter(text.charAt(runEnd))) runEnd++;
+
+            // every start inside the same run of letters shares the rest of the match,
+            // so only the leftmost start that leaves 3 to 9 letters has to be tried
+            if (matchAt(Math.max(i, runEnd - 9), runEnd)) {
+                position = groups[1];
+                matched = true;
+                return true;
+            }
+
+            i = runEnd;
+        }
+
+        position = limit;
+        matched = false;
+        return false;
+    }
+
+    /* Tries a match that starts at "start", where "letterEnd" is the end of its run of letters */
+    private boolean matchAt(int start, int letterEnd) {
+        if (letterEnd - start < 3) return false;
+
+        // \d{1,2} followed by a letter: the whole run of digits has to be 1 or 2 digits
+        int digitEnd = runEnd(letterEnd, 3, false);
+        if (digitEnd == letterEnd || digitEnd - letterEnd > 2) return false;
+
+        // [a-zA-Z]{3,9} followed by a digit: the whole run of letters has to be 3 to 9 letters
+        int postLetterEnd = runEnd(digitEnd, 10, true);
+        if (postLetterEnd - digitEnd < 3 || postLetterEnd - digitEnd > 9) return false;
+        if (postLetterEnd >= limit || !isDigit(text.charAt(postLetterEnd))) return false;
+
+        // \d{1,2} followed by .+ (which also takes digits): 2 digits first, then 1
+        if (postLetterEnd + 1 < limit && isDigit(text.charAt(postLetterEnd + 1))
+                && matchDescription(start, letterEnd, digitEnd, postLetterEnd + 2)) {
+            return true;
+        }
+
+        return matchDescription(start, letterEnd, digitEnd, postLetterEnd + 1);
+    }
+
+    /* ".+" starts at "descStart", it stops at the last possible place on the same line */
+    private boolean matchDescription(int start, int letterEnd, int digitEnd, int descStart) {
+        if (descStart >= limit) return false;
+
+        int p = lastDescriptionEnds[lineEnds[descStart - from] - from];
+        if (p < descStart + 1) return false;
+
+        int amountStart = hasDetails(p + 2) && amountAt(p + 8) ? p + 8 : p + 2;
+        boolean negative = text.charAt(amountStart) == '-' && amountStart + 1 < limit && amountEnds[amountStart + 1 - from] >= 0;
+        int amountEnd = negative ? amountEnds[amountStart + 1 - from] : amountEnds[amountStart - from];
+
+        setGroup(0, start, amountEnd);
+        setGroup(1, start, digitEnd);
+        setGroup(2, digitEnd, descStart);
+        setGroup(3, descStart, amountStart);
+        if (amountStart == p + 8) {
+            setGroup(4, p + 2, p + 8);
+        } else {
+            setGroup(4, -1, -1);
+        }
+        setGroup(5, amountStart, amountEnd);
+        return true;
+    }
+
+    /* "\D{2}(:\d{2}/\d{2})?" then an amount, right after p */
+    private boolean descriptionEndsAt(int p) {
+        if (p + 1 >= limit || isDigit(text.charAt(p)) || isDigit(text.charAt(p + 1))) return false;
+        return (hasDetails(p + 2) && amountAt(p + 8)) || amountAt(p + 2);
+    }
+
+    /* ":\d{2}/\d{2}" at offset i */
+    private boolean hasDetails(int i) {
+        return i + 5 < limit && text.charAt(i) == ':' && isDigit(text.charAt(i + 1)) && isDigit(text.charAt(i + 2))
+                    && text.charAt(i + 3) == '/' && isDigit(text.charAt(i + 4)) && isDigit(text.charAt(i + 5));
+    }
+
+    /* "-?(\d{1,3},)*\d{1,3}\.\d{2}" at offset i */
+    private boolean amountAt(int i) {
+        if (i >= limit) return false;
+        if (text.charAt(i) == '-' && i + 1 < limit && amountEnds[i + 1 - from] >= 0) return true;
+        return amountEnds[i - from] >= 0;
+    }
+
+    /* End of the run of letters (or digits) from i, counting at most "max" chars */
+    private int runEnd(int i, int max, boolean letters) {
+        int end = i;
+        while (end < limit && end - i < max && (letters ? isLetter(text.charAt(end)) : isDigit(text.charAt(end)))) end++;
+        return end;
+    }
+
+    private void setGroup(int group, int start, int end) {
+        groups[2 * group] = start;
+        groups[2 * group + 1] = end;
+    }
+
+    private static boolean isLetter(char ch) {
+        return (ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z');
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isLineTerminator(char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    private void checkMatch(int group) {
+        if (!matched) throw new IllegalStateException("No match found");
+        if (group < 0 || group > GROUP_COUNT) throw new IndexOutOfBoundsException("No group " + group);
+    }
+
+    /* MatchResult, group 6 of the regex (the last comma group of the amount) is not tracked */
+
+    @Override
+    public int start() {
+        return start(0);
+    }
+
+    @Override
+    public int start(int group) {
+        checkMatch(group);
+        return groups[2 * group];
+    }
+
+    @Override
+    public int end() {
+        return end(0);
+    }
+
+    @Override
+    public int end(int group) {
+        checkMatch(group);
+        return groups[2 * group + 1];
+    }
+
+    @Override
+    public String group() {
+        return group(0);
+    }
+
+    @Override
+    public String group(int group) {
+        checkMatch(group);
+        if (groups[2 * group] < 0) return null;
+        return text.subSequence(groups[2 * group], groups[2 * group + 1]).toString();
+    }
+
+    @Override
+    public int groupCount() {
+        return GROUP_COUNT;
+    }
+
+}
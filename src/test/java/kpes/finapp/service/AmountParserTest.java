@@ -0,0 +1,89 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.text.DecimalFormat;
+import java.text.ParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class AmountParserTest {
+
+    @Test
+    void testParseCentsCaseGroupedAmount() {
+
+        // Act and Assert
+        assertEquals(123456789L, AmountParser.parseCents("1,234,567.89"));
+        assertEquals(50000L, AmountParser.parseCents("500.00"));
+        assertEquals(0L, AmountParser.parseCents("0.00"));
+
+    }
+
+    @Test
+    void testParseCentsCaseNegativeAmount() {
+
+        // Act and Assert
+        assertEquals(-2599999L, AmountParser.parseCents("-25,999.99"));
+
+    }
+
+    @Test
+    void testParseCentsCaseFewerDecimals() {
+
+        // Act and Assert
+        assertEquals(150L, AmountParser.parseCents("1.5"));
+        assertEquals(700L, AmountParser.parseCents("7"));
+        assertEquals(50L, AmountParser.parseCents(".5"));
+
+    }
+
+    @Test
+    void testParseCentsCaseRegion() {
+
+        // Arrange
+        String text = "TOTALAMOUNTDUE1,750.50\nMINIMUMAMOUNTDUE500.00";
+
+        // Act
+        long cents = AmountParser.parseCents(text, 14, 22);
+
+        // Assert
+        assertEquals(175050L, cents);
+
+    }
+
+    @Test
+    void testParseCentsCaseInvalidAmount() {
+
+        // Act and Assert
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents(""));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("-"));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("."));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("1.234"));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("1,.00"));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents(",100.00"));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("1.0,0"));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("12a.00"));
+        assertThrows(NumberFormatException.class, () -> AmountParser.parseCents("12345678901234567.00"));
+
+    }
+
+    @Test
+    void testParseCentsCaseSameAsDecimalFormat() throws ParseException {
+
+        // Arrange
+        DecimalFormat formatter = new DecimalFormat("###,###.###");
+        String[] amounts = {"0.01", "0.10", "19.99", "1,000.00", "-500.00", "12,345.67", "999,999,999.99", "-0.07"};
+
+        for (String amount : amounts) {
+
+            // Act
+            double result = AmountParser.parseCents(amount) / 100.0;
+
+            // Assert
+            assertEquals(formatter.parse(amount).doubleValue(), result, amount);
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class AnchorScannerTest {
+
+    @Test
+    void testScanCaseAllOccurrences() {
+
+        // Arrange
+        AnchorScanner scanner = new AnchorScanner("Total", "TOTALAMOUNTDUE", "PreviousBalance");
+        String text = "PreviousBalance1,000.00\nTotal1.00\nTOTALAMOUNTDUE5.00\nTotal2.00";
+
+        // Act
+        AnchorScanner.Anchors anchors = scanner.scan(text);
+
+        // Assert
+        assertEquals(2, anchors.count(0));
+        assertEquals(text.indexOf("Total"), anchors.position(0, 0));
+        assertEquals(text.lastIndexOf("Total"), anchors.position(0, 1));
+        assertEquals(1, anchors.count(1));
+        assertEquals(text.indexOf("TOTALAMOUNTDUE"), anchors.first(1));
+        assertEquals(0, anchors.first(2));
+
+    }
+
+    @Test
+    void testScanCaseOverlappingKeywords() {
+
+        // Arrange
+        AnchorScanner scanner = new AnchorScanner("Payment", "PaymentDue", "Due", "mentD");
+
+        // Act
+        AnchorScanner.Anchors anchors = scanner.scan("xPaymentDuePayment");
+
+        // Assert
+        assertEquals(2, anchors.count(0));
+        assertEquals(1, anchors.position(0, 0));
+        assertEquals(11, anchors.position(0, 1));
+        assertEquals(1, anchors.first(1));
+        assertEquals(8, anchors.first(2));
+        assertEquals(4, anchors.first(3));
+
+    }
+
+    @Test
+    void testScanCaseNotFound() {
+
+        // Arrange
+        AnchorScanner scanner = new AnchorScanner("STATEMENTDATE");
+
+        // Act
+        AnchorScanner.Anchors anchors = scanner.scan("STATEMENT DATE");
+
+        // Assert
+        assertEquals(0, anchors.count(0));
+        assertEquals(-1, anchors.first(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> anchors.position(0, 0));
+
+    }
+
+    @Test
+    void testScanCaseRange() {
+
+        // Arrange
+        AnchorScanner scanner = new AnchorScanner("Total");
+
+        // Act
+        AnchorScanner.Anchors anchors = scanner.scan("TotalTotalTotal", 3, 12);
+
+        // Assert
+        assertEquals(1, anchors.count(0));
+        assertEquals(5, anchors.first(0));
+
+    }
+
+    @Test
+    void testScanCaseSameAsIndexOf() {
+
+        // Arrange
+        String[] keywords = {"ab", "abab", "ba", "bab", "aab"};
+        AnchorScanner scanner = new AnchorScanner(keywords);
+        Random random = new Random(5);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) text.append("abx".charAt(random.nextInt(3)));
+
+        // Act
+        AnchorScanner.Anchors anchors = scanner.scan(text);
+
+        // Assert
+        for (int k = 0; k < keywords.length; k++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = text.indexOf(keywords[k]); i >= 0; i = text.indexOf(keywords[k], i + 1)) expected.add(i);
+
+            assertEquals(expected.size(), anchors.count(k));
+            for (int n = 0; n < expected.size(); n++) {
+                assertEquals(expected.get(n), anchors.position(k, n));
+            }
+        }
+
+    }
+
+    @Test
+    void testConstructorCaseEmptyKeyword() {
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> new AnchorScanner("Total", ""));
+
+    }
+
+}
@@ -8,18 +8,24 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -120,7 +126,132 @@ public class BPICreditStatementTest {
 
     }
 
+    @Test
+    void testExtractStatementTextCaseSuccessWithoutSpaces() throws IOException {
+        
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        String expected = "<<othercontent>>StatementofAccount<<othercontent>>";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(expected);
+
+        // Act
+        Boolean result = bpicc.extractStatementText(p, mockExtractor);
+
+        //Assert
+        assertTrue(result);
+        assertEquals(expected, bpicc.getRawString());
+        
+        // Clean up
+        Files.delete(p);
+
+    }
+
     
+    @Test
+    void testLoadStatementTextCaseProbeRejects() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        when(mockExtractor.probeText(p, pwd)).thenReturn("Invoice");
+
+        // Act and Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> bpicc.loadStatementText(p, mockExtractor, pwd));
+        assertTrue(exception.getMessage().contains("not a Bank Statement"));
+        verify(mockExtractor, never()).extractText(p, pwd);
+
+        // Clean up
+        Files.delete(p);
+    }
+
+    @Test
+    void testLoadStatementTextCaseProbeAccepts() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        String expected = "<<other content>> Statement of Account <<other content>>";
+        when(mockExtractor.probeText(p, pwd)).thenReturn("Statement of Account");
+        when(mockExtractor.extractText(p, pwd)).thenReturn(expected);
+
+        // Act
+        bpicc.loadStatementText(p, mockExtractor, pwd);
+
+        // Assert
+        assertEquals(expected, bpicc.getRawString());
+
+        // Clean up
+        Files.delete(p);
+    }
+
+    @Test
+    void testLoadStatementTextCaseCandidatePasswords() throws IOException {
+
+        // Arrange
+        Path p = Paths.get("src/test/resources/content_protected.pdf");
+        byte[] data = Files.readAllBytes(p);
+        String expected = "<<other content>> Statement of Account <<other content>>";
+        List<String> usedPasswords = new ArrayList<>();
+        TextExtractor<byte[], String> extractor = (bytes, pw) -> {
+            assertTrue(Arrays.equals(data, bytes));
+            usedPasswords.add(pw);
+            return expected;
+        };
+
+        // Act
+        String result = bpicc.loadStatementText(p, extractor, Arrays.asList("01011990", "password123"));
+
+        // Assert
+        assertEquals("password123", result);
+        assertEquals(expected, bpicc.getRawString());
+        assertEquals(Arrays.asList("password123"), usedPasswords);
+
+    }
+
+    @Test
+    void testLoadStatementTextCaseInMemorySources() throws IOException {
+
+        // Arrange
+        String expected = "<<other content>> Statement of Account <<other content>>";
+        byte[] data = "junk%PDF-1.7 content".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        BPICreditStatement fromBuffer = new BPICreditStatement();
+        BPICreditStatement fromStream = new BPICreditStatement();
+
+        // Act
+        bpicc.loadStatementText(data, (bytes, pw) -> expected, "");
+        fromBuffer.loadStatementText(buffer, (bytes, pw) -> expected, "");
+        fromStream.loadStatementText(new ByteArrayInputStream(data), (in, pw) -> expected, "");
+
+        // Assert
+        assertEquals(expected, bpicc.getRawString());
+        assertEquals(expected, fromBuffer.getRawString());
+        assertEquals(0, buffer.position());
+        assertEquals(expected, fromStream.getRawString());
+
+    }
+
+    @Test
+    void testLoadStatementTextCaseInMemoryNotPDF() {
+
+        // Arrange
+        byte[] data = "plain text".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer afterHeader = ByteBuffer.wrap("%PDF-1.7 content".getBytes(StandardCharsets.US_ASCII)).position(1);
+        TextExtractor<byte[], String> extractor = (bytes, pw) -> "Statement of Account";
+
+        // Act and Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> bpicc.loadStatementText(data, extractor, ""));
+        assertTrue(exception.getMessage().contains("is not a PDF file"));
+        assertThrows(IllegalArgumentException.class, () -> bpicc.loadStatementText(new byte[0], extractor, ""));
+        assertThrows(IllegalArgumentException.class,
+                        () -> bpicc.loadStatementText(afterHeader, (buffer, pw) -> "Statement of Account", ""));
+        exception = assertThrows(IllegalArgumentException.class,
+                        () -> bpicc.loadStatementText("%PDF-".getBytes(StandardCharsets.US_ASCII), (bytes, pw) -> "dummy text", ""));
+        assertTrue(exception.getMessage().contains("not a Bank Statement"));
+
+    }
+
     /* ====================== Tests for parseRawText (Integration Testing) ====================== */
 
     @Test
@@ -198,6 +329,40 @@ public class BPICreditStatementTest {
     }
 
 
+    @Test
+    void testParseRawTextCaseCentsBalanceExactly() throws IOException {
+
+        // Arrange
+        // 0.10 + 0.20 == 0.30 does not hold for doubles
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        String content = "Statement of Account \n" +
+                        "STATEMENT DATE FEBRUARY 04, 2025 \n" +
+                        "PAYMENT DUE DATE FEBRUARY 24, 2025 \n" +
+                        "MINIMUM AMOUNT DUE 0.30 \n" +
+                        "Previous Balance 0.10 \n" +
+                        "TOTAL AMOUNT DUE 0.30 \n" +
+                        "Total 0.10 0.00 0.20 0.00 0.00 0.00 0.00 \n" +
+                        "123456-7-89-0123456-JUAN DELA CRUZ \n" +
+                        "January 10 January 11 Merchant One 0.20 \n";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(content);
+        bpicc.extractStatementText(p, mockExtractor);
+
+        // Act
+        bpicc.parseRawText();
+
+        // Assert
+        assertTrue(bpicc.isParsed());
+        assertEquals(10, bpicc.getBeginningBalanceCents());
+        assertEquals(20, bpicc.getTotalCreditsCents());
+        assertEquals(30, bpicc.getEndingBalanceCents());
+        assertEquals(20, bpicc.getTransactions().get(0).getAmountCents());
+
+        // Clean up
+        Files.delete(p);
+
+    }
+
     @Test
     void testParseRawTextCaseStatementNotBalanced() {
 
@@ -234,6 +399,27 @@ public class BPICreditStatementTest {
     }
 
 
+    @Test
+    void testPreprocessRawTextCaseAlreadyWithoutSpaces() throws IOException {
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        String content = "<<othercontent>>StatementofAccount<<othercontent>>";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(content);
+
+        // Act
+        bpicc.extractStatementText(p, mockExtractor);
+        bpicc.preprocessRawText();
+
+        //Assert
+        assertEquals(content, bpicc.getRawString());
+        
+        // Clean up
+        Files.delete(p);
+
+    }
+
+
     /* ====================== Tests for extractStatementDate ====================== */
 
     @Test
@@ -1753,4 +1939,264 @@ public class BPICreditStatementTest {
     }
 
 
+    @Test
+    void testParseSummaryRegionsCaseValidRegions() {
+
+        // Arrange
+        Map<String, String> regions = new HashMap<>();
+        regions.put(CreditStatement.SUMMARY_REGION, "STATEMENT DATE FEBRUARY 04, 2025 \n" +
+                                                    "PAYMENT DUE DATE FEBRUARY 24, 2025 \n" +
+                                                    "MINIMUM AMOUNT DUE 500.00");
+        regions.put(CreditStatement.PREVIOUS_BALANCE_REGION, "Previous Balance 1,000.00");
+        regions.put(CreditStatement.TOTALS_REGION, "Total 1,000.00 500.00 1,250.50 0.00 0.00 0.00 0.00");
+        regions.put(CreditStatement.TOTAL_AMOUNT_DUE_REGION, "TOTAL AMOUNT DUE 1,750.50");
+
+        // Act
+        bpicc.parseSummaryRegions(regions);
+
+        // Assert
+        assertEquals(LocalDate.of(2025, 2, 4), bpicc.getStatementDate());
+        assertEquals(LocalDate.of(2025, 2, 24), bpicc.getDueDate());
+        assertEquals(500_00, bpicc.getMinAmountDueCents());
+        assertEquals(1_000_00, bpicc.getBeginningBalanceCents());
+        assertEquals(1_250_50, bpicc.getTotalCreditsCents());
+        assertEquals(500_00, bpicc.getTotalDebitsCents());
+        assertEquals(1_750_50, bpicc.getEndingBalanceCents());
+        assertFalse(bpicc.isParsed());
+        assertEquals("", bpicc.getRawString());
+
+    }
+
+
+    @Test
+    void testParseSummaryRegionsCaseMissingOrUnbalanced() {
+
+        // Arrange
+        Map<String, String> missing = new HashMap<>();
+        missing.put(CreditStatement.STATEMENT_DATE_REGION, "STATEMENT DATE FEBRUARY 04, 2025");
+        Map<String, String> unbalanced = new HashMap<>();
+        unbalanced.put(CreditStatement.SUMMARY_REGION, StatementBatchProcessorTest.UNBALANCED_STATEMENT);
+
+        // Act and Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> bpicc.parseSummaryRegions(missing));
+        assertTrue(exception.getMessage().contains(CreditStatement.DUE_DATE_REGION));
+        assertThrows(AssertionError.class, () -> bpicc.parseSummaryRegions(unbalanced));
+        assertEquals(0, bpicc.getEndingBalanceCents());
+
+    }
+
+
+    @Test
+    void testExtractTransactionListCaseTableRows() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(StatementBatchProcessorTest.VALID_STATEMENT);
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(new TableRow(1, "Transaction Date", "Post Date", "Description", "Amount"));
+        rows.add(new TableRow(1, "January 5", "January 5", "Payment - Thank You", "-500.00"));
+        rows.add(new TableRow(1, "123456-7-89-0123456-JUAN DELA CRUZ", "", "", ""));
+        rows.add(new TableRow(1, "January 10", "January 11", "Merchant One", "1,000.00"));
+        rows.add(new TableRow(2, "January 20", "January 21", "Merchant Two", "250.50"));
+        rows.add(new TableRow(2, "Page 2 of 2", "", "", ""));
+        List<AbstractTransaction> expected = new ArrayList<>();
+        expected.add(new CreditTransaction(LocalDate.of(2025, 1, 5), "Payment", -500.00, LocalDate.of(2025, 1, 5)));
+        expected.add(new CreditTransaction(LocalDate.of(2025, 1, 10), "MerchantOne", 1000.00, LocalDate.of(2025, 1, 11)));
+        expected.add(new CreditTransaction(LocalDate.of(2025, 1, 20), "MerchantTwo", 250.50, LocalDate.of(2025, 1, 21)));
+
+        // Act
+        bpicc.extractStatementText(p, mockExtractor);
+        bpicc.setTransactionRows(rows);
+        bpicc.parseRawText();
+
+        // Assert
+        assertTrue(bpicc.isParsed());
+        assertEquals(expected, bpicc.getTransactions());
+
+        // Clean up
+        Files.delete(p);
+
+    }
+
+
+    @Test
+    void testExtractTransactionListCaseTableRowsSections() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(StatementBatchProcessorTest.VALID_STATEMENT);
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(new TableRow(1, "January 5", "January 5", "Payment - Thank You", "-500.00"));
+        rows.add(new TableRow(1, "123456-7-89-0123456-JUAN DELA CRUZ", "", "", ""));
+        rows.add(new TableRow(1, "Installment Purchase", "", "", ""));
+        rows.add(new TableRow(1, "December 12", "December 12", "Merchant Three:(12 Mos.)", "12,000.00"));
+        rows.add(new TableRow(1, "January 10", "January 11", "Merchant One", "1,000.00"));
+        rows.add(new TableRow(2, "January 20", "January 21", "Merchant Two", "250.50"));
+        rows.add(new TableRow(2, "654321-0-98-7654321-MARIA DELA CRUZ", "", "", ""));
+        rows.add(new TableRow(2, "January 15", "January 16", "Supplementary Shop", "99.00"));
+        rows.add(new TableRow(3, "S.I.P. BALANCE SUMMARY", "", "", ""));
+        rows.add(new TableRow(3, "January 25", "January 25", "Merchant Three", "1,000.00"));
+        List<AbstractTransaction> expected = new ArrayList<>();
+        expected.add(new CreditTransaction(LocalDate.of(2025, 1, 5), "Payment", -500.00, LocalDate.of(2025, 1, 5)));
+        expected.add(new CreditTransaction(LocalDate.of(2025, 1, 10), "MerchantOne", 1000.00, LocalDate.of(2025, 1, 11)));
+        expected.add(new CreditTransaction(LocalDate.of(2025, 1, 20), "MerchantTwo", 250.50, LocalDate.of(2025, 1, 21)));
+
+        // Act
+        bpicc.extractStatementText(p, mockExtractor);
+        bpicc.setTransactionRows(rows);
+        bpicc.parseRawText();
+
+        // Assert
+        assertTrue(bpicc.isParsed());
+        assertEquals(expected, bpicc.getTransactions());
+
+        // Clean up
+        Files.delete(p);
+
+    }
+
+
+    @Test
+    void testLoadStatementTable() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        PDFBoxExtractor extractor = (PDFBoxExtractor) mockExtractor;
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(new TableRow(1, "January 5", "January 5", "Payment - Thank You", "-500.00"));
+        rows.add(new TableRow(1, "123456-7-89-0123456-JUAN DELA CRUZ", "", "", ""));
+        rows.add(new TableRow(1, "January 10", "January 11", "Merchant One", "1,000.00"));
+        rows.add(new TableRow(2, "January 20", "January 21", "Merchant Two", "250.50"));
+        when(extractor.extractTable(p, pwd, 0, 100, 200, 400))
+                .thenReturn(new TableText(StatementBatchProcessorTest.VALID_STATEMENT, rows));
+
+        // Act
+        bpicc.loadStatementTable(p, extractor, pwd, 0, 100, 200, 400);
+        bpicc.parseRawText();
+
+        // Assert
+        assertEquals(rows, bpicc.getTransactionRows());
+        assertTrue(bpicc.isParsed());
+        assertEquals(3, bpicc.getTransactions().size());
+        verify(extractor, never()).extractText(p, pwd);
+        verify(extractor, never()).extractRows(p, pwd, 0, 100, 200, 400);
+
+        // Clean up
+        Files.delete(p);
+
+    }
+
+
+    @Test
+    void testExtractTransactionListCaseTableRowsNoDelimiter() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(StatementBatchProcessorTest.VALID_STATEMENT);
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(new TableRow(1, "January 5", "January 5", "Payment - Thank You", "-500.00"));
+        rows.add(new TableRow(1, "January 10", "January 11", "Merchant One", "1,000.00"));
+        rows.add(new TableRow(2, "January 20", "January 21", "Merchant Two", "250.50"));
+
+        // Act
+        bpicc.extractStatementText(p, mockExtractor);
+        bpicc.setTransactionRows(rows);
+
+        // Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> bpicc.parseRawText());
+        assertTrue(exception.getMessage().contains("Cannot split"));
+        assertFalse(bpicc.isParsed());
+
+        // Clean up
+        Files.delete(p);
+
+    }
+
+
+    @Test
+    void testExtractTransactionListCaseTableRowsNoPurchaseFound() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        when(mockExtractor.extractText(p, pwd)).thenReturn(StatementBatchProcessorTest.VALID_STATEMENT);
+        List<TableRow> rows = new ArrayList<>();
+        rows.add(new TableRow(1, "January 5", "January 5", "Payment - Thank You", "-500.00"));
+        rows.add(new TableRow(1, "123456-7-89-0123456-JUAN DELA CRUZ", "", "", ""));
+        rows.add(new TableRow(1, "Merchant One", "1,000.00", "", ""));
+        rows.add(new TableRow(2, "Merchant Two", "250.50", "", ""));
+
+        // Act
+        bpicc.extractStatementText(p, mockExtractor);
+        bpicc.setTransactionRows(rows);
+
+        // Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> bpicc.parseRawText());
+        assertTrue(exception.getMessage().contains("Transaction Pattern"));
+        assertFalse(bpicc.isParsed());
+
+        // Clean up
+        Files.delete(p);
+
+    }
+
+
+    @Test
+    void testLoadSummaryCaseStopsAfterSummaryPage() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        String[] pageTexts = { "Statement of Account \nSTATEMENT DATE FEBRUARY 04, 2025 \nPAYMENT DUE DATE FEBRUARY 24, 2025 \n",
+                                "MINIMUM AMOUNT DUE 500.00 \nTOTAL AMOUNT DUE 1,750.50 \n",
+                                "January 10 January 11 Merchant One 1,000.00 \n" };
+        List<Integer> handedOut = new ArrayList<>();
+        StreamingTextExtractor<Path, String> extractor = (path, pw, consumer) -> {
+            for (int i = 0; i < pageTexts.length; i++) {
+                handedOut.add(i + 1);
+                if (!consumer.acceptPage(i + 1, pageTexts[i])) return;
+            }
+        };
+
+        // Act
+        bpicc.loadSummary(p, extractor, pwd);
+
+        // Assert
+        assertEquals(Arrays.asList(1, 2), handedOut);
+        assertEquals(LocalDate.of(2025, 2, 4), bpicc.getStatementDate());
+        assertEquals(LocalDate.of(2025, 2, 24), bpicc.getDueDate());
+        assertEquals(500_00, bpicc.getMinAmountDueCents());
+        assertEquals(1_750_50, bpicc.getEndingBalanceCents());
+        assertTrue(bpicc.getTransactions().isEmpty());
+        assertFalse(bpicc.isParsed());
+
+        // Clean up
+        Files.delete(p);
+    }
+
+
+    @Test
+    void testLoadSummaryCaseNoSummaryOrNotStatement() throws IOException {
+
+        // Arrange
+        Path p = Files.createTempFile("statement", ".pdf");
+        String pwd = "";
+        StreamingTextExtractor<Path, String> noSummary = (path, pw, consumer) -> consumer.acceptPage(1, "Statement of Account \n");
+        StreamingTextExtractor<Path, String> other = (path, pw, consumer) ->
+                        consumer.acceptPage(1, StatementBatchProcessorTest.VALID_STATEMENT.replace("Statement of Account", "Receipt"));
+
+        // Act and Assert
+        assertThrows(IllegalStateException.class, () -> bpicc.loadSummary(p, noSummary, pwd));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> bpicc.loadSummary(p, other, pwd));
+        assertTrue(exception.getMessage().contains("not a Bank Statement"));
+        assertEquals("", bpicc.getRawString());
+
+        // Clean up
+        Files.delete(p);
+    }
+
 }
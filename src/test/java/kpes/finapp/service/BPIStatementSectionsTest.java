@@ -0,0 +1,126 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class BPIStatementSectionsTest {
+
+    private static final String DELIMITER = "123456-7-89-1234567-JUANDELACRUZ\n";
+
+    private static String section(String text, int start, int end) {
+        return text.substring(start, end);
+    }
+
+    @Test
+    void testOfCaseAllSections() {
+
+        // Arrange
+        String text = "STATEMENTDATEFEBRUARY04,2025\n" + DELIMITER +
+                        "January1January2Shop100.00\n" +
+                        "S.I.P.BALANCESUMMARY\n" +
+                        "120524120525ShopName500.001,000.00\n";
+
+        // Act
+        BPIStatementSections sections = BPIStatementSections.of(text);
+
+        // Assert
+        assertTrue(sections.isValid());
+        assertTrue(sections.isFor(text));
+        assertEquals("STATEMENTDATEFEBRUARY04,2025\n", section(text, 0, sections.getHeaderEnd()));
+        assertEquals("January1January2Shop100.00\n", section(text, sections.getTransactionsStart(), sections.getTransactionsEnd()));
+        assertTrue(sections.hasSipSummary());
+        assertEquals("\n120524120525ShopName500.001,000.00\n",
+                        section(text, sections.getInstallmentDetailsStart(), sections.getInstallmentDetailsEnd()));
+
+    }
+
+    @Test
+    void testOfCaseInstallmentAmortization() {
+
+        // Arrange
+        String text = DELIMITER + "InstallmentPurchase:\nDecember5December5Shop:(12Mos.)12,000.00\n" +
+                        "InstallmentAmortization:January1January2Shop100.00\n";
+
+        // Act
+        BPIStatementSections sections = BPIStatementSections.of(text);
+
+        // Assert
+        assertEquals("January1January2Shop100.00\n", section(text, sections.getTransactionsStart(), sections.getTransactionsEnd()));
+        assertFalse(sections.hasSipSummary());
+        assertFalse(sections.hasInstallmentDetails());
+
+    }
+
+    @Test
+    void testOfCaseInstallmentPurchaseOnly() {
+
+        // Arrange
+        String text = DELIMITER + "InstallmentPurchase:\nDecember5December5Shop:(12Mos.)12,000.00" +
+                        "January1January2Shop100.00\n";
+
+        // Act
+        BPIStatementSections sections = BPIStatementSections.of(text);
+
+        // Assert
+        assertEquals("January1January2Shop100.00\n", section(text, sections.getTransactionsStart(), sections.getTransactionsEnd()));
+
+    }
+
+    @Test
+    void testOfCaseSecondDelimiter() {
+
+        // Arrange
+        String text = DELIMITER + "January1January2Shop100.00\n" + DELIMITER + "January3January4Shop200.00\n";
+
+        // Act
+        BPIStatementSections sections = BPIStatementSections.of(text);
+
+        // Assert
+        assertEquals("January1January2Shop100.00\n", section(text, sections.getTransactionsStart(), sections.getTransactionsEnd()));
+
+    }
+
+    @Test
+    void testOfCaseNoDelimiter() {
+
+        // Arrange
+        String noTransactions = "STATEMENTDATEFEBRUARY04,2025UnbilledInstallmentAmount0.00";
+        String invalid = "STATEMENTDATEFEBRUARY04,2025UnbilledInstallmentAmount0.00Other";
+
+        // Act
+        BPIStatementSections valid = BPIStatementSections.of(noTransactions);
+
+        // Assert
+        assertTrue(valid.isValid());
+        assertFalse(valid.hasTransactions());
+        assertFalse(valid.hasInstallmentDetails());
+        assertFalse(BPIStatementSections.of(invalid).isValid());
+        assertFalse(BPIStatementSections.of("").isValid());
+
+    }
+
+    @Test
+    void testOfCaseEmptySections() {
+
+        // Arrange
+        String text = "Header" + DELIMITER + "S.I.P.BALANCESUMMARY";
+
+        // Act
+        BPIStatementSections sections = BPIStatementSections.of(text);
+        BPIStatementSections delimiterOnly = BPIStatementSections.of(DELIMITER);
+
+        // Assert
+        assertTrue(sections.isValid());
+        assertFalse(sections.hasTransactions());
+        assertTrue(sections.hasSipSummary());
+        assertFalse(sections.hasInstallmentDetails());
+        assertTrue(delimiterOnly.isValid());
+        assertFalse(delimiterOnly.hasTransactions());
+        assertFalse(sections.isFor(new String(text)));
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CachingTextExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    Path cacheDir;
+    Path file;
+    TextExtractor<Path, String> extractor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        cacheDir = tempDir.resolve("cache");
+        file = Files.writeString(tempDir.resolve("statement.pdf"), "pdf content");
+        extractor = mock(TextExtractor.class);
+        when(extractor.extractText(any(Path.class), anyString())).thenReturn("extracted text");
+    }
+
+    private long countCacheFiles() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testExtractTextCaseMemoryHit() throws IOException {
+
+        // Arrange
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 10);
+
+        // Act
+        String first = cache.extractText(file, "");
+        String second = cache.extractText(file, "");
+
+        // Assert
+        assertEquals("extracted text", first);
+        assertEquals("extracted text", second);
+        verify(extractor, times(1)).extractText(file, "");
+        assertEquals(1, countCacheFiles());
+
+    }
+
+    @Test
+    void testExtractTextCaseDiskHitAfterRestart() throws IOException {
+
+        // Arrange
+        new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 10).extractText(file, "");
+        Path copy = Files.copy(file, tempDir.resolve("renamed.pdf"));
+        CachingTextExtractor restarted = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 0);
+
+        // Act
+        String result = restarted.extractText(copy, "");
+
+        // Assert
+        assertEquals("extracted text", result);
+        verify(extractor, times(1)).extractText(any(Path.class), anyString());
+
+    }
+
+    @Test
+    void testExtractTextCaseDifferentSettingsOrCredentials() throws IOException {
+
+        // Arrange
+        String[] settings = {"stripSpaces=false"};
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> settings[0], cacheDir, 1024, 10);
+
+        // Act
+        cache.extractText(file, "");
+        cache.extractText(file, "password");
+        settings[0] = "stripSpaces=true";
+        cache.extractText(file, "");
+
+        // Assert
+        verify(extractor, times(2)).extractText(file, "");
+        verify(extractor, times(1)).extractText(file, "password");
+        assertNotEquals(cache.key(file, ""), cache.key(file, "password"));
+
+    }
+
+    @Test
+    void testExtractTextCaseChangedContent() throws IOException {
+
+        // Arrange
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 10);
+        cache.extractText(file, "");
+
+        // Act
+        Files.writeString(file, "other pdf content");
+        cache.extractText(file, "");
+
+        // Assert
+        verify(extractor, times(2)).extractText(file, "");
+
+    }
+
+    @Test
+    void testExtractTextCaseEvictsLeastRecentlyUsed() throws IOException {
+
+        // Arrange
+        // "extracted text" is 14 bytes, only 2 texts fit
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 30, 0);
+        Path second = Files.writeString(tempDir.resolve("second.pdf"), "second");
+        Path third = Files.writeString(tempDir.resolve("third.pdf"), "third");
+
+        // Act
+        cache.extractText(file, "");
+        cache.extractText(second, "");
+        // second is older, until it is read again from disk
+        Files.setLastModifiedTime(cacheDir.resolve(cache.key(file, "") + ".txt"), FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(cacheDir.resolve(cache.key(second, "") + ".txt"), FileTime.fromMillis(1000));
+        cache.extractText(second, "");
+        cache.extractText(third, "");
+
+        // Assert
+        assertEquals(2, countCacheFiles());
+        assertTrue(Files.exists(cacheDir.resolve(cache.key(second, "") + ".txt")));
+        assertTrue(Files.exists(cacheDir.resolve(cache.key(third, "") + ".txt")));
+
+    }
+
+    @Test
+    void testExtractTextCaseRunningDiskTotal() throws IOException {
+
+        // Arrange
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 0);
+        Path second = Files.writeString(tempDir.resolve("second.pdf"), "second");
+
+        // Act
+        cache.extractText(file, "");
+        cache.extractText(second, "");
+        CachingTextExtractor restarted = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 0);
+        long afterRestart = restarted.getDiskBytes();
+        restarted.clear();
+
+        // Assert
+        // "extracted text" is 14 bytes
+        assertEquals(28, cache.getDiskBytes());
+        assertEquals(28, afterRestart);
+        assertEquals(0, restarted.getDiskBytes());
+        assertEquals(0, countCacheFiles());
+
+    }
+
+    @Test
+    void testExtractTextCaseExtractorFails() throws IOException {
+
+        // Arrange
+        when(extractor.extractText(any(Path.class), anyString())).thenThrow(new IOException("Cannot decrypt"));
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 10);
+
+        // Act and Assert
+        assertThrows(IOException.class, () -> cache.extractText(file, "wrong"));
+        assertEquals(0, countCacheFiles());
+        assertThrows(IOException.class, () -> cache.extractText(tempDir.resolve("missing.pdf"), ""));
+
+    }
+
+
+    @Test
+    void testProbeTextCaseDelegated() throws IOException {
+
+        // Arrange
+        when(extractor.probeText(any(Path.class), anyString())).thenReturn("first page");
+        CachingTextExtractor cache = new CachingTextExtractor(extractor, () -> "settings", cacheDir, 1024, 10);
+
+        // Act
+        String beforeExtraction = cache.probeText(file, "");
+        cache.extractText(file, "");
+        String afterExtraction = cache.probeText(file, "");
+
+        // Assert
+        assertEquals("first page", beforeExtraction);
+        assertEquals("first page", afterExtraction);
+        verify(extractor, times(2)).probeText(file, "");
+
+    }
+
+
+}
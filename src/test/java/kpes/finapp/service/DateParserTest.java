@@ -0,0 +1,106 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+public class DateParserTest {
+
+    @Test
+    void testParseMonthDayCaseSameAsFormatter() {
+
+        // Arrange
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMMd,yyyy", Locale.ENGLISH);
+
+        for (int year : new int[] {2024, 2025}) {
+            for (Month month : Month.values()) {
+                for (int day = 1; day <= 31; day++) {
+                    String name = month.name().charAt(0) + month.name().substring(1).toLowerCase();
+                    String text = name + day;
+
+                    // Act
+                    LocalDate result = DateParser.parseMonthDay(text, 0, text.length(), year);
+
+                    // Assert
+                    assertEquals(LocalDate.parse(text + "," + year, formatter), result, text);
+                }
+            }
+        }
+
+    }
+
+    @Test
+    void testParseMonthDayCaseRegion() {
+
+        // Arrange
+        String text = "January10JANUARY04MerchantName100.00";
+
+        // Act and Assert
+        assertEquals(LocalDate.of(2025, 1, 10), DateParser.parseMonthDay(text, 0, 9, 2025));
+        assertEquals(LocalDate.of(2025, 1, 4), DateParser.parseMonthDay(text, 9, 18, 2025));
+
+    }
+
+    @Test
+    void testParseMonthDayCaseInvalid() {
+
+        // Act and Assert
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("Jan5", 0, 4, 2025));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("Januaryy5", 0, 9, 2025));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("January", 0, 7, 2025));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("January0", 0, 8, 2025));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("January32", 0, 9, 2025));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("January123", 0, 10, 2025));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDay("5January", 0, 8, 2025));
+
+    }
+
+    @Test
+    void testParseMonthDayYear() {
+
+        // Act and Assert
+        assertEquals(LocalDate.of(2025, 2, 4), DateParser.parseMonthDayYear("FEBRUARY04,2025", 0, 15));
+        assertEquals(LocalDate.of(2025, 10, 1), DateParser.parseMonthDayYear("xOctober1,2025x", 1, 14));
+        assertEquals(LocalDate.of(2024, 2, 29), DateParser.parseMonthDayYear("FEBRUARY30,2024", 0, 15));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDayYear("FEBRUARY04 2025", 0, 15));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMonthDayYear(",2025", 0, 5));
+
+    }
+
+    @Test
+    void testParseMMddyyCaseSameAsFormatter() {
+
+        // Arrange
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMddyy");
+        String[] dates = {"120524", "113027", "010100", "022824", "022923", "123199", "043125"};
+
+        for (String date : dates) {
+
+            // Act
+            LocalDate result = DateParser.parseMMddyy(date, 0, 6);
+
+            // Assert
+            assertEquals(LocalDate.parse(date, formatter), result, date);
+        }
+
+    }
+
+    @Test
+    void testParseMMddyyCaseInvalid() {
+
+        // Act and Assert
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMMddyy("130524", 0, 6));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMMddyy("120024", 0, 6));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMMddyy("12052", 0, 5));
+        assertThrows(DateTimeParseException.class, () -> DateParser.parseMMddyy("12a524", 0, 6));
+
+    }
+
+}
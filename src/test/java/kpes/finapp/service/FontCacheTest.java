@@ -0,0 +1,159 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FontCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    // one page PDF with a line of text in Helvetica
+    private static byte[] createPDF(String text) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            return createPDF(document, new PDType1Font(Standard14Fonts.FontName.HELVETICA), text);
+        }
+    }
+
+    // one page PDF with a line of text in Liberation Sans, embedded whole with its ToUnicode map
+    private static Path createEmbeddedFontPDF(Path file, String text) throws IOException {
+        try (PDDocument document = new PDDocument();
+             InputStream ttf = PDFont.class.getResourceAsStream("/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf")) {
+            // not a subset, so every document embeds the same font
+            PDFont font = PDType0Font.load(document, ttf, false);
+            return Files.write(file, createPDF(document, font, text));
+        }
+    }
+
+    private static byte[] createPDF(PDDocument document, PDFont font, String text) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.beginText();
+            content.setFont(font, 10);
+            content.newLineAtOffset(72, 720);
+            content.showText(text);
+            content.endText();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.save(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testExtractTextCaseSameFontInNextDocument() throws IOException {
+
+        // Arrange
+        FontCache cache = new FontCache(8);
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.setFontCache(cache);
+
+        // Act
+        String first = extractor.extractText(createPDF("STATEMENT DATE FEBRUARY 04, 2025"), "");
+        String second = extractor.extractText(createPDF("TOTAL AMOUNT DUE 1,750.50"), "");
+
+        // Assert
+        assertEquals("STATEMENT DATE FEBRUARY 04, 2025", first);
+        assertEquals("TOTAL AMOUNT DUE 1,750.50", second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+
+    }
+
+    @Test
+    void testExtractTextCaseEmbeddedFontAfterDocumentClosed() throws IOException {
+
+        // Arrange
+        FontCache cache = new FontCache(8);
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.setFontCache(cache);
+        Path first = createEmbeddedFontPDF(tempDir.resolve("first.pdf"), "STATEMENT DATE FEBRUARY 04, 2025");
+        Path second = createEmbeddedFontPDF(tempDir.resolve("second.pdf"), "TOTAL AMOUNT DUE 1,750.50");
+
+        // Act
+        String firstText = extractor.extractText(first, "");
+        String secondText = extractor.extractText(second, "");
+
+        // Assert
+        assertEquals("STATEMENT DATE FEBRUARY 04, 2025", firstText);
+        assertEquals("TOTAL AMOUNT DUE 1,750.50", secondText);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+
+    }
+
+    @Test
+    void testExtractTextCaseEmbeddedFontAfterBufferUnmapped() throws IOException {
+
+        // Arrange
+        FontCache cache = new FontCache(8);
+        PDFBoxExtractor extractor = new PDFBoxExtractor(2);
+        extractor.setMemoryMapped(true);
+        extractor.setFontCache(cache);
+        String[] texts = { "STATEMENT DATE FEBRUARY 04, 2025", "TOTAL AMOUNT DUE 1,750.50", "MINIMUM AMOUNT DUE 500.00" };
+        Path[] files = new Path[texts.length];
+        for (int i = 0; i < texts.length; i++) files[i] = createEmbeddedFontPDF(tempDir.resolve(i + ".pdf"), texts[i]);
+
+        try {
+            // Act
+            String[] extracted = new String[texts.length];
+            for (int i = 0; i < texts.length; i++) extracted[i] = extractor.extractText(files[i], "");
+
+            // Assert
+            // each file is unmapped after its extraction, the second worker can miss once
+            assertArrayEquals(texts, extracted);
+            assertEquals(texts.length, cache.getMissCount() + cache.getHitCount());
+            assertTrue(cache.getMissCount() <= 2);
+            assertTrue(cache.getHitCount() >= 1);
+        } finally {
+            extractor.close();
+        }
+
+    }
+
+    @Test
+    void testFingerprint() {
+
+        // Arrange
+        COSDictionary helvetica = new COSDictionary();
+        helvetica.setItem(COSName.TYPE, COSName.FONT);
+        helvetica.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        helvetica.setName(COSName.BASE_FONT, "Helvetica");
+        COSDictionary reordered = new COSDictionary();
+        reordered.setName(COSName.BASE_FONT, "Helvetica");
+        reordered.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        reordered.setItem(COSName.TYPE, COSName.FONT);
+        COSDictionary courier = new COSDictionary(helvetica);
+        courier.setName(COSName.BASE_FONT, "Courier");
+
+        // Act and Assert
+        assertEquals(FontCache.fingerprint(helvetica), FontCache.fingerprint(reordered));
+        assertNotEquals(FontCache.fingerprint(helvetica), FontCache.fingerprint(courier));
+        assertThrows(IllegalArgumentException.class, () -> new FontCache(0));
+
+    }
+
+}
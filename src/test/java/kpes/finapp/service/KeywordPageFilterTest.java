@@ -0,0 +1,170 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.regex.Pattern;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+
+public class KeywordPageFilterTest {
+
+    // writes each text at (x, y) in its own BT/ET block, in the given order
+    private static void addPage(PDDocument document, Object... textsAt) throws IOException {
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            for (int i = 0; i < textsAt.length; i += 3) {
+                content.beginText();
+                content.setFont(font, 10);
+                content.newLineAtOffset((Integer) textsAt[i + 1], (Integer) textsAt[i + 2]);
+                content.showText((String) textsAt[i]);
+                content.endText();
+            }
+        }
+    }
+
+    @Test
+    void testIsRelevantCaseKeywordsWithoutCaseAndSpaces() {
+
+        // Arrange
+        KeywordPageFilter filter = new KeywordPageFilter().addRule(1, "Statement Date");
+
+        // Act and Assert
+        assertTrue(filter.isRelevant(1, "STATEMENTDATE FEBRUARY 04, 2025"));
+        assertTrue(filter.isRelevant(1, "Statement\n  date"));
+        assertFalse(filter.isRelevant(1, "Statement of Account"));
+
+    }
+
+    @Test
+    void testIsRelevantCaseMinimumHits() {
+
+        // Arrange
+        KeywordPageFilter filter = new KeywordPageFilter().addRule(3, "January", "February");
+
+        // Act and Assert
+        assertFalse(filter.isRelevant(2, "January 5 January 6 Shop 100.00"));
+        assertTrue(filter.isRelevant(2, "January 5 January 6 Shop 100.00\nFebruary 1 February 2 Shop 50.00"));
+        assertTrue(filter.isRelevant(2, "January January January"));
+
+    }
+
+    @Test
+    void testIsRelevantCaseAnyRule() {
+
+        // Arrange
+        KeywordPageFilter filter = new KeywordPageFilter().addRule(1, "TOTAL AMOUNT DUE").addRule(2, "Installment");
+
+        // Act and Assert
+        assertTrue(filter.isRelevant(1, "TOTAL AMOUNT DUE 1,750.50"));
+        assertTrue(filter.isRelevant(3, "Installment Purchase Installment Amortization"));
+        assertFalse(filter.isRelevant(3, "Installment"));
+        assertFalse(new KeywordPageFilter().isRelevant(1, "TOTAL AMOUNT DUE"));
+
+    }
+
+    @Test
+    void testForBPICreditStatement() {
+
+        // Arrange
+        KeywordPageFilter filter = KeywordPageFilter.forBPICreditStatement();
+
+        // Act and Assert
+        assertTrue(filter.isRelevant(1, "STATEMENT DATE FEBRUARY 04, 2025"));
+        assertTrue(filter.isRelevant(2, "123456-7-89-0123456-JUANDELACRUZ"));
+        assertTrue(filter.isRelevant(2, "January 10 January 11 Merchant One 1,000.00"));
+        assertTrue(filter.isRelevant(2, "Jan 10 Jan 11 Merchant One 1,000.00"));
+        assertTrue(filter.isRelevant(3, "December 12 January 03 Merchant:(03/12 Mos.) 1,000.00"));
+        assertTrue(filter.isRelevant(3, "S.I.P. BALANCE SUMMARY"));
+        assertTrue(filter.isRelevant(3, "Unbilled Installment Amount 3,000.00"));
+        assertFalse(filter.isRelevant(4, "Earn double points when you shop this May! Promo runs May 1 to May 31."));
+        assertFalse(filter.isRelevant(5, "TERMS AND CONDITIONS\nThe cardholder agrees to pay the total amount."));
+
+    }
+
+    @Test
+    void testForBPICreditStatementCaseTermsPage() {
+
+        // Arrange
+        KeywordPageFilter filter = KeywordPageFilter.forBPICreditStatement();
+        String terms = "IMPORTANT REMINDERS\n"
+                        + "1. Pay at least the MINIMUM AMOUNT DUE on or before the PAYMENT DUE DATE to keep\n"
+                        + "your account in good standing. Payments made after the PAYMENT DUE DATE may be\n"
+                        + "subject to a late payment charge, and the bank may suspend the card.\n"
+                        + "2. The STATEMENT DATE is the date when your billing period closes. Purchases made\n"
+                        + "after the STATEMENT DATE will appear in your next Statement of Account.\n"
+                        + "3. Finance charges are computed from the posting date, as of March 2024 rates, and\n"
+                        + "you may request a copy of the Terms and Conditions Governing the Issuance and Use\n"
+                        + "of BPI Credit Cards at any branch from Monday to Friday, 9 AM to 3 PM.";
+
+        // Act
+        boolean relevant = filter.isRelevant(6, terms);
+
+        // Assert
+        assertFalse(relevant);
+
+    }
+
+    @Test
+    void testForBPICreditStatementCaseLabelsAndValuesApart() throws IOException {
+
+        // Arrange
+        try (PDDocument document = new PDDocument()) {
+            // summary box with all the labels written before the values
+            addPage(document, "Statement of Account", 72, 740,
+                                "STATEMENT DATE", 72, 720,
+                                "PAYMENT DUE DATE", 72, 700,
+                                "MINIMUM AMOUNT DUE", 72, 680,
+                                "FEBRUARY 04, 2025", 300, 720,
+                                "FEBRUARY 24, 2025", 300, 700,
+                                "500.00", 300, 680);
+            // transaction table written column by column
+            addPage(document, "January 10", 72, 720, "January 20", 72, 700,
+                                "January 11", 150, 720, "January 21", 150, 700,
+                                "Merchant One", 230, 720, "Merchant Two", 230, 700,
+                                "1,000.00", 450, 720, "250.50", 450, 700);
+            addPage(document, "IMPORTANT REMINDERS", 72, 720,
+                                "Pay the MINIMUM AMOUNT DUE on or before the PAYMENT DUE DATE.", 72, 700,
+                                "Purchases after the STATEMENT DATE may appear in your next statement.", 72, 680);
+
+            // Act
+            BitSet pages = StatementTextStripper.findPages(document, KeywordPageFilter.forBPICreditStatement(), null);
+
+            // Assert
+            BitSet expected = new BitSet();
+            expected.set(1, 3);
+            assertEquals(expected, pages);
+        }
+
+    }
+
+    @Test
+    void testAddRuleCaseInvalid() {
+
+        // Arrange
+        KeywordPageFilter filter = new KeywordPageFilter();
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> filter.addRule(0, "Keyword"));
+        assertThrows(IllegalArgumentException.class, () -> filter.addRule(1));
+        assertThrows(IllegalArgumentException.class, () -> filter.addRule(1, " "));
+        assertThrows(IllegalArgumentException.class, () -> filter.addPatternRule(1));
+        assertThrows(IllegalArgumentException.class, () -> filter.addAllOfRule());
+        assertEquals("KeywordPageFilter", filter.toString());
+
+    }
+
+}
@@ -0,0 +1,47 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+public class LayoutProfileTest {
+
+    @Test
+    void testAddRegionCaseReplaceSameName() {
+
+        // Arrange
+        LayoutProfile profile = new LayoutProfile()
+                                    .addRegion(CreditStatement.SUMMARY_REGION, 1, 10, 20, 30, 40)
+                                    .addRegion(CreditStatement.TOTALS_REGION, 2, 0, 0, 100, 50);
+
+        // Act
+        profile.addRegion(CreditStatement.SUMMARY_REGION, 1, 15, 25, 35, 45);
+        LayoutProfile.Region summary = profile.getRegions().get(CreditStatement.SUMMARY_REGION);
+
+        // Assert
+        assertEquals(Arrays.asList(CreditStatement.SUMMARY_REGION, CreditStatement.TOTALS_REGION),
+                        new ArrayList<>(profile.getRegions().keySet()));
+        assertEquals(1, summary.getPage());
+        assertEquals(new Rectangle2D.Double(15, 25, 35, 45), summary.getArea());
+
+    }
+
+    @Test
+    void testAddRegionCaseInvalidRegion() {
+
+        // Arrange
+        LayoutProfile profile = new LayoutProfile();
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> profile.addRegion("noPage", 0, 0, 0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> profile.addRegion("empty", 1, 0, 0, 0, 10));
+        assertEquals(0, profile.getRegions().size());
+
+    }
+
+}
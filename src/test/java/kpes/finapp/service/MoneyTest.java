@@ -0,0 +1,40 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+
+    @Test
+    void testToCentsCaseExactAmount() {
+
+        // Act and Assert
+        assertEquals(123456L, Money.toCents(1234.56));
+        assertEquals(-50000L, Money.toCents(-500.00));
+        assertEquals(234567809L, Money.toCents(2345678.09));
+        assertEquals(0L, Money.toCents(0));
+
+    }
+
+    @Test
+    void testToCentsCaseRounded() {
+
+        // Act and Assert
+        assertEquals(30L, Money.toCents(0.1 + 0.2));
+        assertEquals(101L, Money.toCents(1.005));
+        assertEquals(-101L, Money.toCents(-1.005));
+
+    }
+
+    @Test
+    void testToDoubleAndToDecimal() {
+
+        // Act and Assert
+        assertEquals(301000.45, Money.toDouble(30100045L));
+        assertEquals("301000.45", Money.toDecimal(30100045L).toPlainString());
+        assertEquals("1,000.00", String.format("%,.2f", Money.toDecimal(100000L)));
+
+    }
+
+}
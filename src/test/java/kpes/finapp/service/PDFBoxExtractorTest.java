@@ -1,16 +1,29 @@
 package kpes.finapp.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.junit.jupiter.api.Test;
 
+import kpes.finapp.service.ExtractionLimitExceededException.Limit;
+
 public class PDFBoxExtractorTest {
     
 
@@ -116,4 +129,487 @@ public class PDFBoxExtractorTest {
 
 
 
+
+    @Test
+    void testExtractTextCaseParallelSameAsSequential() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd);
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor(4);
+        String result = extractor.extractText(filePath, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+        assertTrue(result.startsWith("Page 1 of 8"));
+        assertTrue(result.indexOf("Page 3 of 8") < result.indexOf("Page 4 of 8"));
+        assertTrue(result.endsWith("amount 805.00"));
+
+    }
+
+
+    @Test
+    void testExtractTextCaseParallelFewPages() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/content_protected.pdf");
+        String pwd = "password123";
+        String expected = "This is an encrypted PDF";
+        
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor(4);
+        String result = extractor.extractText(filePath, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+
+    }
+
+
+    @Test
+    void testExtractTextCaseParallelWrongPassword() {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/content_protected.pdf");
+        String pwd = "";
+        
+        //Act and Assert
+        PDFBoxExtractor extractor = new PDFBoxExtractor(4);
+        assertThrows(IOException.class, () -> extractor.extractText(filePath, pwd));
+
+    }
+
+
+    @Test
+    void testConstructorCaseInvalidParallelism() {
+
+        //Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> new PDFBoxExtractor(0));
+
+    }
+
+
+    @Test
+    void testCloseCaseParallel() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        PDFBoxExtractor extractor = new PDFBoxExtractor(4);
+        String expected = extractor.extractText(filePath, pwd);
+
+        // Act
+        extractor.close();
+
+        // Assert
+        assertTrue(expected.startsWith("Page 1 of 8"));
+        assertThrows(RejectedExecutionException.class, () -> extractor.extractText(filePath, pwd));
+
+    }
+
+
+
+    @Test
+    void testStreamingExtractTextCaseAllPages() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd);
+        StringBuilder streamed = new StringBuilder();
+        List<Integer> pageNumbers = new ArrayList<>();
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.extractText(filePath, pwd, (pageNumber, pageText) -> {
+            pageNumbers.add(pageNumber);
+            streamed.append(pageText);
+            return true;
+        });
+
+        // Assert
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8), pageNumbers);
+        assertEquals(expected, streamed.toString().trim());
+
+    }
+
+
+    @Test
+    void testStreamingExtractTextCaseStopEarly() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        List<String> pages = new ArrayList<>();
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.extractText(filePath, pwd, (pageNumber, pageText) -> {
+            pages.add(pageText.toString());
+            return pageNumber < 2;
+        });
+
+        // Assert
+        assertEquals(2, pages.size());
+        assertTrue(pages.get(0).startsWith("Page 1 of 8"));
+        assertTrue(pages.get(1).startsWith("Page 2 of 8"));
+
+    }
+
+
+    @Test
+    void testStreamingExtractTextCaseEncryptedWrongPassword() {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/content_protected.pdf");
+        String pwd = "";
+        
+        //Act and Assert
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        assertThrows(IOException.class, () -> extractor.extractText(filePath, pwd, (pageNumber, pageText) -> true));
+
+    }
+
+
+
+    @Test
+    void testExtractTextCaseStripSpaces() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd).replaceAll(" ", "");
+        
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.setStripSpaces(true);
+        String result = extractor.extractText(filePath, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+        assertTrue(result.startsWith("Page1of8"));
+
+    }
+
+
+    @Test
+    void testExtractTextCaseStripSpacesParallel() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd).replaceAll(" ", "");
+        
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor(3);
+        extractor.setStripSpaces(true);
+        String result = extractor.extractText(filePath, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+
+    }
+
+
+    @Test
+    void testExtractTextCaseInMemorySources() throws IOException {
+
+        // Arrange
+        byte[] data = Files.readAllBytes(Paths.get("src/test/resources/content_protected.pdf"));
+        String pwd = "password123";
+        String expected = "This is an encrypted PDF";
+
+        // the document after 3 other bytes, the buffer reads from its position
+        ByteBuffer buffer = ByteBuffer.allocate(data.length + 3);
+        buffer.put(new byte[3]).put(data).position(3);
+        
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        String fromBytes = extractor.extractText(data, pwd);
+        String fromBuffer = extractor.extractText(buffer, pwd);
+        String fromStream = extractor.extractText(new ByteArrayInputStream(data), pwd);
+
+        // Assert
+        assertEquals(expected, fromBytes);
+        assertEquals(expected, fromBuffer);
+        assertEquals(3, buffer.position());
+        assertEquals(expected, fromStream);
+        assertThrows(IOException.class, () -> extractor.extractText(data, ""));
+
+    }
+
+
+    @Test
+    void testExtractTextCaseInMemoryParallelSameAsFile() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd);
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Files.size(filePath));
+        buffer.put(Files.readAllBytes(filePath)).flip();
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor(4);
+        String result = extractor.extractText(buffer, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+
+    }
+
+
+    @Test
+    void testExtractTextCaseMemoryMappedWithBudget() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd);
+
+        //Act
+        PDFBoxExtractor sequential = new PDFBoxExtractor();
+        sequential.setMemoryMapped(true);
+        sequential.setMemoryUsage(MemoryUsageSetting.setupMixed(64 * 1024));
+        PDFBoxExtractor parallel = new PDFBoxExtractor(4);
+        parallel.setMemoryMapped(true);
+        parallel.setMemoryUsage(MemoryUsageSetting.setupTempFileOnly());
+
+        // Assert
+        assertEquals(expected, sequential.extractText(filePath, pwd));
+        assertEquals(expected, parallel.extractText(filePath, pwd));
+        assertEquals(new PDFBoxExtractor().getSettings(), parallel.getSettings());
+
+    }
+
+
+    @Test
+    void testExtractTextCaseMemoryMappedEncrypted() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/content_protected.pdf");
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.setMemoryMapped(true);
+        extractor.setMemoryUsage(MemoryUsageSetting.setupMainMemoryOnly(1024 * 1024));
+        List<String> pages = new ArrayList<>();
+
+        //Act
+        String result = extractor.extractText(filePath, "password123");
+        extractor.extractText(filePath, "password123", (page, text) -> {
+            pages.add(text.toString());
+            return true;
+        });
+
+        // Assert
+        assertEquals("This is an encrypted PDF", result);
+        assertEquals(1, pages.size());
+        assertThrows(IOException.class, () -> extractor.extractText(filePath, ""));
+
+    }
+
+
+    @Test
+    void testProbeTextCaseFirstPages() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+
+        //Act
+        String disabled = extractor.probeText(filePath, pwd);
+        extractor.setProbePages(1);
+        String firstPage = extractor.probeText(filePath, pwd);
+        extractor.setProbePages(2);
+        String firstTwoPages = extractor.probeText(filePath, pwd);
+
+        // Assert
+        assertNull(disabled);
+        assertTrue(firstPage.startsWith("Page 1 of 8"));
+        assertFalse(firstPage.contains("Page 2 of 8"));
+        assertTrue(firstTwoPages.contains("Page 2 of 8"));
+        assertFalse(firstTwoPages.contains("Page 3 of 8"));
+        assertThrows(IllegalArgumentException.class, () -> extractor.setProbePages(-1));
+
+    }
+
+
+    @Test
+    void testExtractTextCasePageFilter() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String[] pages = new PDFBoxExtractor().extractText(filePath, pwd).split("(?=Page \\d of 8)");
+        String expected = (pages[2] + pages[6]).trim();
+        PageFilter filter = new KeywordPageFilter().addRule(1, "Page 3 of 8", "amount 701.00");
+
+        //Act
+        PDFBoxExtractor sequential = new PDFBoxExtractor();
+        sequential.setPageFilter(filter);
+        PDFBoxExtractor parallel = new PDFBoxExtractor(4);
+        parallel.setPageFilter(filter);
+        List<Integer> streamed = new ArrayList<>();
+        sequential.extractText(filePath, pwd, (pageNumber, pageText) -> streamed.add(pageNumber));
+
+        // Assert
+        assertEquals(expected, sequential.extractText(filePath, pwd));
+        assertEquals(expected, parallel.extractText(filePath, pwd));
+        assertEquals(Arrays.asList(3, 7), streamed);
+        assertTrue(sequential.getSettings().contains("pageFilter=KeywordPageFilter[1:PAGE3OF8,AMOUNT701.00]"));
+
+    }
+
+
+    @Test
+    void testExtractRegions() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        LayoutProfile profile = new LayoutProfile()
+                                    .addRegion("third", 3, 0, 114, 612, 12)
+                                    .addRegion("second", 1, 0, 98, 612, 12)
+                                    .addRegion("missing", 9, 0, 0, 612, 792);
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        Map<String, String> regions = extractor.extractRegions(filePath, pwd, profile);
+        extractor.setStripSpaces(true);
+        Map<String, String> stripped = extractor.extractRegions(filePath, pwd, profile);
+
+        // Assert
+        assertEquals(Arrays.asList("third", "second"), new ArrayList<>(regions.keySet()));
+        assertEquals("Line 3 on page 3    amount 303.00", regions.get("third"));
+        assertEquals("Line 2 on page 1    amount 102.00", regions.get("second"));
+        assertEquals("Line2onpage1amount102.00", stripped.get("second"));
+
+    }
+
+
+    @Test
+    void testExtractRows() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        List<TableRow> rows = extractor.extractRows(filePath, pwd, 0, 150);
+
+        // Assert
+        assertEquals(48, rows.size());
+        assertEquals(new TableRow(1, "Page 1 of 8", ""), rows.get(0));
+        assertEquals(new TableRow(1, "Line 1 on page 1", "amount 101.00"), rows.get(1));
+        assertEquals(new TableRow(8, "Line 5 on page 8", "amount 805.00"), rows.get(47));
+        assertThrows(IllegalArgumentException.class, () -> extractor.extractRows(filePath, pwd, 150, 0));
+
+    }
+
+
+    @Test
+    void testExtractTable() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+
+        //Act
+        TableText table = extractor.extractTable(filePath, pwd, 0, 150);
+
+        // Assert
+        assertEquals(extractor.extractText(filePath, pwd), table.getText());
+        assertEquals(extractor.extractRows(filePath, pwd, 0, 150), table.getRows());
+
+    }
+
+
+    @Test
+    void testSetLineBinning() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        PDFBoxExtractor sorted = new PDFBoxExtractor();
+        PDFBoxExtractor binned = new PDFBoxExtractor();
+        binned.setLineBinning(true);
+
+        //Act
+        String expected = sorted.extractText(filePath, pwd);
+        String result = binned.extractText(filePath, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+        assertTrue(binned.getSettings().contains("lineBinning=true"));
+        assertFalse(sorted.getSettings().contains("lineBinning"));
+
+    }
+
+
+    @Test
+    void testExtractTextCaseOutputBufferReused() throws IOException {
+
+        // Arrange
+        Path multipage = Paths.get("src/test/resources/multipage.pdf");
+        Path content = Paths.get("src/test/resources/content.pdf");
+        String pwd = "";
+        String expectedMultipage = new PDFBoxExtractor().extractText(multipage, pwd);
+        String expectedContent = new PDFBoxExtractor().extractText(content, pwd);
+
+        //Act
+        PDFBoxExtractor extractor = new PDFBoxExtractor();
+        extractor.setProbePages(1);
+        String first = extractor.extractText(multipage, pwd);
+        String probe = extractor.probeText(multipage, pwd);
+        String second = extractor.extractText(content, pwd);
+        String third = extractor.extractText(multipage, pwd);
+
+        // Assert
+        assertEquals(expectedMultipage, first);
+        assertTrue(probe.startsWith("Page 1 of 8"));
+        assertFalse(probe.contains("Page 2 of 8"));
+        assertEquals(expectedContent, second);
+        assertEquals(expectedMultipage, third);
+
+    }
+
+    @Test
+    void testExtractTextCaseLimits() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/multipage.pdf");
+        String pwd = "";
+        String expected = new PDFBoxExtractor().extractText(filePath, pwd);
+        PDFBoxExtractor withinLimits = new PDFBoxExtractor();
+        withinLimits.setLimits(ExtractionLimits.NONE.withMaxPages(8).withMaxBytes(Files.size(filePath))
+                                .withMaxChars(expected.length() + 100).withTimeout(Duration.ofMinutes(1)));
+
+        PDFBoxExtractor pages = new PDFBoxExtractor();
+        pages.setLimits(ExtractionLimits.NONE.withMaxPages(4));
+        PDFBoxExtractor bytes = new PDFBoxExtractor();
+        bytes.setLimits(ExtractionLimits.NONE.withMaxBytes(100));
+        PDFBoxExtractor chars = new PDFBoxExtractor(4);
+        chars.setLimits(ExtractionLimits.NONE.withMaxChars(expected.length() / 2));
+        PDFBoxExtractor timeout = new PDFBoxExtractor();
+        timeout.setLimits(ExtractionLimits.NONE.withTimeout(Duration.ofNanos(1)));
+
+        // Act
+        String result = withinLimits.extractText(filePath, pwd);
+
+        // Assert
+        assertEquals(expected, result);
+        assertEquals(Limit.PAGES, assertThrows(ExtractionLimitExceededException.class, () -> pages.extractText(filePath, pwd)).getLimit());
+        assertEquals(Limit.BYTES, assertThrows(ExtractionLimitExceededException.class,
+                        () -> bytes.extractText(new ByteArrayInputStream(Files.readAllBytes(filePath)), pwd)).getLimit());
+        assertEquals(Limit.CHARACTERS, assertThrows(ExtractionLimitExceededException.class, () -> chars.extractText(filePath, pwd)).getLimit());
+        assertEquals(Limit.TIMEOUT, assertThrows(ExtractionLimitExceededException.class,
+                        () -> timeout.extractText(filePath, pwd, (page, text) -> true)).getLimit());
+
+    }
+
 }
@@ -0,0 +1,162 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ParsedStatementCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    Path cacheDir;
+    Path file;
+    BPICreditStatement parsed;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheDir = tempDir.resolve("cache");
+        file = Files.writeString(tempDir.resolve("statement.pdf"), "pdf content");
+
+        parsed = new BPICreditStatement();
+        parsed.loadStatementText(file, (path, pw) -> StatementBatchProcessorTest.VALID_STATEMENT, "");
+        parsed.parseRawText();
+        parsed.setUnbilledInstallmentAmtCents(12_000_00);
+        parsed.getInstallmentTxns().add(InstallmentTransaction.ofCents(LocalDate.of(2024, 12, 5), "ShopName",
+                                            12_000_00, LocalDate.of(2025, 1, 5), 9_000_00));
+    }
+
+    private long countEntries() throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            return entries.count();
+        }
+    }
+
+    @Test
+    void testLoadCaseStoredStatement() throws IOException {
+
+        // Arrange
+        ParsedStatementCache cache = new ParsedStatementCache(cacheDir);
+        cache.store(file, "", parsed);
+
+        // Act
+        BPICreditStatement restored = cache.load(Files.copy(file, tempDir.resolve("copy.pdf")), "");
+
+        // Assert
+        assertNotNull(restored);
+        assertTrue(restored.isParsed());
+        assertEquals(parsed.getStatementDate(), restored.getStatementDate());
+        assertEquals(parsed.getDueDate(), restored.getDueDate());
+        assertEquals(parsed.getMinAmountDueCents(), restored.getMinAmountDueCents());
+        assertEquals(parsed.getBeginningBalanceCents(), restored.getBeginningBalanceCents());
+        assertEquals(parsed.getTotalCreditsCents(), restored.getTotalCreditsCents());
+        assertEquals(parsed.getTotalDebitsCents(), restored.getTotalDebitsCents());
+        assertEquals(parsed.getEndingBalanceCents(), restored.getEndingBalanceCents());
+        assertEquals(parsed.getUnbilledInstallmentAmtCents(), restored.getUnbilledInstallmentAmtCents());
+        assertEquals(parsed.getTransactions(), restored.getTransactions());
+        assertEquals(parsed.getInstallmentTxns(), restored.getInstallmentTxns());
+        assertEquals("", restored.getRawString());
+
+    }
+
+    @Test
+    void testLoadCaseNotStored() throws IOException {
+
+        // Arrange
+        ParsedStatementCache cache = new ParsedStatementCache(cacheDir);
+        cache.store(file, "", parsed);
+
+        // Act and Assert
+        assertNull(cache.load(file, "other password"));
+        assertNull(cache.load(Files.writeString(tempDir.resolve("other.pdf"), "other content"), ""));
+
+    }
+
+    @Test
+    void testLoadCaseParserVersionChanged() throws IOException {
+
+        // Arrange
+        new ParsedStatementCache(cacheDir, 1).store(file, "", parsed);
+
+        // Act
+        ParsedStatementCache newVersion = new ParsedStatementCache(cacheDir, 2);
+
+        // Assert
+        assertEquals(0, countEntries());
+        assertNull(newVersion.load(file, ""));
+
+    }
+
+    @Test
+    void testConstructorCaseKeepsOtherFiles() throws IOException {
+
+        // Arrange
+        new ParsedStatementCache(cacheDir, 1).store(file, "", parsed);
+        Path backup = Files.writeString(cacheDir.resolve("backup.bin"), "user data");
+        Path notes = Files.writeString(cacheDir.resolve("notes-v1.bin"), "user data");
+        Path upperCase = Files.writeString(cacheDir.resolve("A".repeat(64) + "-v1.bin"), "user data");
+
+        // Act
+        new ParsedStatementCache(cacheDir, 2);
+
+        // Assert
+        assertEquals(3, countEntries());
+        assertTrue(Files.exists(backup));
+        assertTrue(Files.exists(notes));
+        assertTrue(Files.exists(upperCase));
+
+    }
+
+    @Test
+    void testLoadCaseCorruptEntry() throws IOException {
+
+        // Arrange
+        ParsedStatementCache cache = new ParsedStatementCache(cacheDir);
+        cache.store(file, "", parsed);
+        Path entry;
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            entry = entries.findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(entry);
+
+        // Act
+        Files.write(entry, Arrays.copyOf(bytes, bytes.length / 2));
+        BPICreditStatement cutShort = cache.load(file, "");
+        cache.store(file, "", parsed);
+        Files.writeString(entry, "not a statement");
+        BPICreditStatement notStatement = cache.load(file, "");
+
+        // Assert
+        assertNull(cutShort);
+        assertNull(notStatement);
+        assertFalse(Files.exists(entry));
+
+    }
+
+    @Test
+    void testStoreCaseNotParsed() throws IOException {
+
+        // Arrange
+        ParsedStatementCache cache = new ParsedStatementCache(cacheDir);
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> cache.store(file, "", new BPICreditStatement()));
+        assertEquals(0, countEntries());
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PasswordResolverTest {
+
+    private static final Path PROTECTED = Paths.get("src/test/resources/content_protected.pdf");
+
+    @Test
+    void testResolveCaseOneCandidateMatches() throws IOException {
+
+        // Arrange
+        List<String> candidates = Arrays.asList("01011990", null, "password123", "19900101");
+        byte[] data = Files.readAllBytes(PROTECTED);
+
+        // Act
+        String fromFile = PasswordResolver.resolve(PROTECTED, candidates);
+        String fromData = PasswordResolver.resolve(data, candidates);
+
+        // Assert
+        assertEquals("password123", fromFile);
+        assertEquals("password123", fromData);
+
+    }
+
+    @Test
+    void testResolveCaseNoCandidateMatches() {
+
+        // Arrange
+        List<String> candidates = Arrays.asList("01011990", "", "Password123");
+
+        // Act and Assert
+        assertThrows(IOException.class, () -> PasswordResolver.resolve(PROTECTED, candidates));
+        assertThrows(IllegalArgumentException.class, () -> PasswordResolver.resolve(PROTECTED, Collections.emptyList()));
+
+    }
+
+    @Test
+    void testResolveCaseNotEncrypted() throws IOException {
+
+        // Arrange
+        Path filePath = Paths.get("src/test/resources/content.pdf");
+
+        // Act
+        String result = PasswordResolver.resolve(filePath, Arrays.asList("01011990", "password123"));
+
+        // Assert
+        assertEquals("01011990", result);
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import kpes.finapp.service.ExtractionLimitExceededException.Limit;
+import kpes.finapp.service.StatementBatchResult.Status;
+
+public class StatementBatchProcessorTest {
+
+    // balanced statement: 1,000.00 + 1,250.50 - 500.00 = 1,750.50
+    static final String VALID_STATEMENT = "Statement of Account \n" +
+                        "STATEMENTDATEFEBRUARY04,2025 \n" +
+                        "PAYMENTDUEDATEFEBRUARY24,2025 \n" +
+                        "MINIMUMAMOUNTDUE500.00 \n" +
+                        "PreviousBalance1,000.00 \n" +
+                        "TOTALAMOUNTDUE1,750.50 \n" +
+                        "Total1,000.00500.001,250.500.000.000.000.00 \n" +
+                        "January5January5Payment-ThankYou-500.00 \n" +
+                        "123456-7-89-0123456-JUANDELACRUZ \n" +
+                        "January10January11MerchantOne1,000.00 \n" +
+                        "January20January21MerchantTwo250.50 \n";
+
+    static final String UNBALANCED_STATEMENT = VALID_STATEMENT.replace("TOTALAMOUNTDUE1,750.50", "TOTALAMOUNTDUE1,750.51");
+
+    @TempDir
+    Path tempDir;
+
+    // returns the text based on the file name so that all workers can share it
+    TextExtractor<Path, String> extractor = (path, pw) -> {
+        String name = path.getFileName().toString();
+        if (name.startsWith("valid")) return VALID_STATEMENT;
+        if (name.startsWith("unbalanced")) return UNBALANCED_STATEMENT;
+        if (name.startsWith("broken")) return "Statement of Account";
+        if (name.startsWith("locked")) throw new IOException("Cannot decrypt");
+        if (name.startsWith("huge")) throw new ExtractionLimitExceededException(Limit.PAGES, "Document has 900 pages, limit is 50");
+        return "dummy text";
+    };
+
+    private Path createFile(String name) throws IOException {
+        return Files.createFile(tempDir.resolve(name));
+    }
+
+    @Test
+    void testProcessCaseAllStatuses() throws IOException, InterruptedException {
+
+        // Arrange
+        List<Path> files = new ArrayList<>();
+        files.add(createFile("valid.pdf"));
+        files.add(createFile("unbalanced.pdf"));
+        files.add(createFile("broken.pdf"));
+        files.add(createFile("locked.pdf"));
+        files.add(createFile("other.pdf"));
+        files.add(tempDir.resolve("missing.pdf"));
+        StatementBatchProcessor<BPICreditStatement> processor = new StatementBatchProcessor<>(BPICreditStatement::new, extractor, 3);
+
+        // Act
+        List<StatementBatchResult<BPICreditStatement>> results = processor.process(files);
+
+        // Assert
+        assertEquals(files.size(), results.size());
+        assertEquals(Status.PARSED, results.get(0).getStatus());
+        assertEquals(Status.VALIDATION_FAILED, results.get(1).getStatus());
+        assertEquals(Status.PARSE_FAILED, results.get(2).getStatus());
+        assertEquals(Status.EXTRACTION_FAILED, results.get(3).getStatus());
+        assertEquals(Status.REJECTED, results.get(4).getStatus());
+        assertEquals(Status.REJECTED, results.get(5).getStatus());
+
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(files.get(i), results.get(i).getPath());
+        }
+
+    }
+
+    @Test
+    void testProcessCaseLimitExceeded() throws IOException, InterruptedException {
+
+        // Arrange
+        List<Path> files = List.of(createFile("huge.pdf"), createFile("valid.pdf"));
+        StatementBatchProcessor<BPICreditStatement> processor = new StatementBatchProcessor<>(BPICreditStatement::new, extractor, 2);
+
+        // Act
+        List<StatementBatchResult<BPICreditStatement>> results = processor.process(files);
+
+        // Assert
+        assertEquals(Status.LIMIT_EXCEEDED, results.get(0).getStatus());
+        assertEquals(Limit.PAGES, ((ExtractionLimitExceededException) results.get(0).getError()).getLimit());
+        assertEquals(Status.PARSED, results.get(1).getStatus());
+
+    }
+
+    @Test
+    void testProcessCaseParsedStatement() throws IOException, InterruptedException {
+
+        // Arrange
+        List<Path> files = List.of(createFile("valid.pdf"));
+        StatementBatchProcessor<BPICreditStatement> processor = new StatementBatchProcessor<>(BPICreditStatement::new, extractor);
+
+        // Act
+        StatementBatchResult<BPICreditStatement> result = processor.process(files).get(0);
+
+        // Assert
+        assertTrue(result.isParsed());
+        assertNull(result.getError());
+        assertTrue(result.getStatement().isParsed());
+        assertEquals(LocalDate.of(2025, 2, 4), result.getStatement().getStatementDate());
+        assertEquals(1750.50, result.getStatement().getEndingBalance());
+        assertEquals(3, result.getStatement().getTransactions().size());
+
+    }
+
+    @Test
+    void testProcessCaseManyFilesKeepOrder() throws IOException, InterruptedException {
+
+        // Arrange
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            files.add(createFile((i % 2 == 0 ? "valid" : "other") + i + ".pdf"));
+        }
+        StatementBatchProcessor<BPICreditStatement> processor = new StatementBatchProcessor<>(BPICreditStatement::new, extractor, 4);
+
+        // Act
+        List<StatementBatchResult<BPICreditStatement>> results = processor.process(files);
+
+        // Assert
+        for (int i = 0; i < files.size(); i++) {
+            assertEquals(files.get(i), results.get(i).getPath());
+            assertEquals(i % 2 == 0 ? Status.PARSED : Status.REJECTED, results.get(i).getStatus());
+        }
+
+    }
+
+    @Test
+    void testProcessDirectoryCaseOnlyPDFFiles() throws IOException, InterruptedException {
+
+        // Arrange
+        createFile("valid2.pdf");
+        createFile("valid1.PDF");
+        createFile("notes.txt");
+        StatementBatchProcessor<BPICreditStatement> processor = new StatementBatchProcessor<>(BPICreditStatement::new, extractor, 2);
+
+        // Act
+        List<StatementBatchResult<BPICreditStatement>> results = processor.processDirectory(tempDir);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals("valid1.PDF", results.get(0).getPath().getFileName().toString());
+        assertEquals("valid2.pdf", results.get(1).getPath().getFileName().toString());
+        assertTrue(results.get(0).isParsed());
+        assertTrue(results.get(1).isParsed());
+
+    }
+
+    @Test
+    void testProcessDirectoryCaseNotDirectory() {
+
+        // Arrange
+        StatementBatchProcessor<BPICreditStatement> processor = new StatementBatchProcessor<>(BPICreditStatement::new, extractor);
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> processor.processDirectory(tempDir.resolve("missing")));
+
+    }
+
+    @Test
+    void testConstructorCaseInvalidParallelism() {
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> new StatementBatchProcessor<>(BPICreditStatement::new, extractor, 0));
+
+    }
+
+}
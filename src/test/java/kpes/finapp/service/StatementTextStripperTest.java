@@ -0,0 +1,178 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDFormContentStream;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.junit.jupiter.api.Test;
+
+public class StatementTextStripperTest {
+
+    // page with a text, a form drawn with a path only (i.e. a logo) and a form with text
+    private static PDDocument createDocumentWithForms() throws IOException {
+        PDDocument document = new PDDocument();
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+        PDFormXObject logo = new PDFormXObject(document);
+        logo.setBBox(new PDRectangle(100, 100));
+        logo.setResources(new PDResources());
+        try (PDFormContentStream content = new PDFormContentStream(logo)) {
+            content.addRect(0, 0, 100, 100);
+            content.fill();
+        }
+
+        PDFormXObject label = new PDFormXObject(document);
+        label.setBBox(new PDRectangle(300, 100));
+        label.setResources(new PDResources());
+        try (PDFormContentStream content = new PDFormContentStream(label)) {
+            content.beginText();
+            content.setFont(font, 10);
+            content.newLineAtOffset(0, 50);
+            content.showText("Statement of Account");
+            content.endText();
+        }
+
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.beginText();
+            content.setFont(font, 10);
+            content.newLineAtOffset(72, 720);
+            content.showText("MINIMUM AMOUNT DUE 500.00");
+            content.endText();
+            content.drawForm(logo);
+            content.drawForm(label);
+        }
+
+        return document;
+    }
+
+    // counts the forms that are processed
+    private static class FormCountingStripper extends StatementTextStripper {
+
+        private int forms;
+
+        @Override
+        public void showForm(PDFormXObject form) throws IOException {
+            forms++;
+            super.showForm(form);
+        }
+
+    }
+
+    @Test
+    void testSetTextOnly() throws IOException {
+
+        try (PDDocument document = createDocumentWithForms()) {
+
+            // Arrange
+            FormCountingStripper all = new FormCountingStripper();
+            FormCountingStripper textOnly = new FormCountingStripper();
+            textOnly.setTextOnly(true);
+
+            // Act
+            String expected = all.getText(document);
+            String result = textOnly.getText(document);
+
+            // Assert
+            assertEquals(expected, result);
+            assertTrue(result.contains("Statement of Account"));
+            assertEquals(2, all.forms);
+            assertEquals(1, textOnly.forms);
+
+        }
+
+    }
+
+
+    // statement lines drawn from the bottom up, each line in pieces right to left, with a
+    // larger amount and a smaller superscript on the same line as the description
+    private static PDDocument createDocumentOutOfOrder() throws IOException {
+        PDDocument document = new PDDocument();
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        document.addPage(page);
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            for (int line = 9; line >= 0; line--) {
+                float y = 700 - line * 14.3f;
+                showText(content, font, 12, 400, y, String.format("%d,%03d.50", line + 1, line * 7));
+                showText(content, font, 6, 220, y + 4, "*");
+                showText(content, font, 10, 150, y + 0.4f, "Merchant " + line);
+                showText(content, font, 10, 72, y, "January " + (line + 10));
+            }
+        }
+
+        return document;
+    }
+
+    private static void showText(PDPageContentStream content, PDType1Font font, float size, float x, float y, String text) throws IOException {
+        content.beginText();
+        content.setFont(font, size);
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+
+    @Test
+    void testSetLineBinningCaseSameAsSortByPosition() throws IOException {
+
+        for (String fixture : new String[] { "content.pdf", "multipage.pdf" }) {
+            try (PDDocument document = Loader.loadPDF(new File("src/test/resources/" + fixture))) {
+
+                // Arrange
+                StatementTextStripper sorted = new StatementTextStripper();
+                StatementTextStripper binned = new StatementTextStripper();
+                binned.setLineBinning(true);
+
+                // Act
+                String expected = sorted.getText(document);
+                String result = binned.getText(document);
+
+                // Assert
+                assertFalse(expected.isBlank());
+                assertEquals(expected, result, fixture);
+
+            }
+        }
+
+    }
+
+    @Test
+    void testSetLineBinningCaseDrawnOutOfOrder() throws IOException {
+
+        try (PDDocument document = createDocumentOutOfOrder()) {
+
+            // Arrange
+            StatementTextStripper sorted = new StatementTextStripper();
+            StatementTextStripper binned = new StatementTextStripper();
+            binned.setLineBinning(true);
+            binned.setStripSpaces(true);
+            sorted.setStripSpaces(true);
+
+            // Act
+            String expected = sorted.getText(document);
+            String result = binned.getText(document);
+
+            // Assert
+            assertEquals(expected, result);
+            assertTrue(result.startsWith("January10Merchant0*1,000.50"), result);
+
+        }
+
+    }
+
+}
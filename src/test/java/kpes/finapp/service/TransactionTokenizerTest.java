@@ -0,0 +1,194 @@
+package kpes.finapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+public class TransactionTokenizerTest {
+
+    private static final Pattern TRANSACTION_PATTERN = Pattern.compile(TransactionTokenizer.TRANSACTION_REGEX);
+
+    // asserts that the tokenizer finds the same matches and groups as the regex
+    private int assertSameAsRegex(String text) {
+        Matcher matcher = TRANSACTION_PATTERN.matcher(text);
+        TransactionTokenizer tokenizer = new TransactionTokenizer(text);
+        int count = 0;
+
+        while (matcher.find()) {
+            assertTrue(tokenizer.find(), text);
+            for (int group = 0; group <= 5; group++) {
+                assertEquals(matcher.start(group), tokenizer.start(group), "group " + group + " of " + text);
+                assertEquals(matcher.end(group), tokenizer.end(group), "group " + group + " of " + text);
+            }
+            count++;
+        }
+
+        assertFalse(tokenizer.find(), text);
+        return count;
+    }
+
+    @Test
+    void testFindCaseTransactionListing() {
+
+        // Arrange
+        String text = "January1January2MerchantName1234Location301,000.45\n" +
+                        "January13January14MerchantName1234Location568.25\n" +
+                        "January25January27MerchantName1234Location2,345,678.09\n";
+
+        // Act
+        TransactionTokenizer tokenizer = new TransactionTokenizer(text);
+
+        // Assert
+        assertTrue(tokenizer.find());
+        assertEquals("January1", tokenizer.group(1));
+        assertEquals("January2", tokenizer.group(2));
+        assertEquals("MerchantName1234Location", tokenizer.group(3));
+        assertNull(tokenizer.group(4));
+        assertEquals("301,000.45", tokenizer.group(5));
+        assertTrue(tokenizer.find());
+        assertEquals("568.25", tokenizer.group(5));
+        assertTrue(tokenizer.find());
+        assertEquals("2,345,678.09", tokenizer.group(5));
+        assertFalse(tokenizer.find());
+        assertEquals(3, assertSameAsRegex(text));
+
+    }
+
+    @Test
+    void testFindCaseInstallmentDetailsAndMinusSign() {
+
+        // Arrange
+        String text = "December5December5ShopName:03/12500.00\n" +
+                        "January3January4Refund-ABC-1,200.50\n" +
+                        "January5January6Shop12Name99.99\n";
+
+        // Act
+        TransactionTokenizer tokenizer = new TransactionTokenizer(text);
+
+        // Assert
+        assertTrue(tokenizer.find());
+        assertEquals("ShopName:03/12", tokenizer.group(3));
+        assertEquals(":03/12", tokenizer.group(4));
+        assertEquals("500.00", tokenizer.group(5));
+        assertTrue(tokenizer.find());
+        // same as the regex, the greedy description takes the minus sign
+        assertEquals("Refund-ABC-", tokenizer.group(3));
+        assertEquals("1,200.50", tokenizer.group(5));
+        assertEquals(3, assertSameAsRegex(text));
+
+    }
+
+    @Test
+    void testFindCaseEdgeCases() {
+
+        // Act and Assert
+        assertSameAsRegex("");
+        assertSameAsRegex("no transactions here");
+        assertSameAsRegex("VeryLongMonthName1January2Shop1.00");
+        assertSameAsRegex("Jan1Feb123Shop1.00");
+        assertSameAsRegex("Jan12Feb12xx1.00");
+        assertSameAsRegex("Jan1Feb12x\n1.00");
+        assertSameAsRegex("Jan1Feb1xy\r\n1.00");
+        assertSameAsRegex("Jan1Feb1x\n\n-1.00");
+        assertSameAsRegex("Jan1Feb1Shop1234,567.89");
+        assertSameAsRegex("Jan1Feb1Shop1,2345.67Jan2Feb2Shop:01/0212.345");
+        assertSameAsRegex("Jan1Feb1Shop 1.00Jan1Feb1Shop\u00851.00");
+
+    }
+
+    @Test
+    void testFindCaseSameAsRegexRandom() {
+
+        // Arrange
+        // random listings built from parts of transactions, valid and broken
+        String[] months = {"January", "Feb", "MAR", "Ja", "September", "abcdefghijk", "x"};
+        String[] days = {"1", "12", "123", ""};
+        String[] descriptions = {"Shop", "x", "-", "1", "12", ":", "/", ":12/34", ":1/23", "\n", "\r\n", " ", "ab-", "A1", ",", "."};
+        String[] amounts = {"1,234.56", "-99.00", "0.01", "12", "1.2", "1234.56", "12,34.56", "1,234,567.89", "-", "5.", "9,", ".00", ""};
+        Random random = new Random(9);
+
+        for (int n = 0; n < 5000; n++) {
+            StringBuilder text = new StringBuilder();
+            int transactions = 1 + random.nextInt(4);
+            for (int t = 0; t < transactions; t++) {
+                text.append(months[random.nextInt(months.length)]).append(days[random.nextInt(days.length)]);
+                text.append(months[random.nextInt(months.length)]).append(days[random.nextInt(days.length)]);
+                for (int i = random.nextInt(5); i > 0; i--) text.append(descriptions[random.nextInt(descriptions.length)]);
+                for (int i = 1 + random.nextInt(3); i > 0; i--) text.append(amounts[random.nextInt(amounts.length)]);
+            }
+
+            // Act and Assert
+            assertSameAsRegex(text.toString());
+        }
+
+    }
+
+    @Test
+    void testFindCaseLongLineWithoutBreaks() {
+
+        // Arrange
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append("January").append(i % 28 + 1).append("January").append(i % 28 + 1).append("Merchant Name ");
+        }
+
+        // Act
+        int count = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            TransactionTokenizer tokenizer = new TransactionTokenizer(text);
+            int found = 0;
+            while (tokenizer.find()) found++;
+            return found;
+        });
+
+        // Assert
+        assertEquals(0, count);
+
+    }
+
+    @Test
+    void testFindCaseRegion() {
+
+        // Arrange
+        String text = "Jan1Feb1Header1.00\nJanuary1January2Shop100.00\nS.I.P.BALANCESUMMARY";
+        int start = text.indexOf("January1");
+        int end = text.indexOf("S.I.P.");
+        Matcher matcher = TRANSACTION_PATTERN.matcher(text).region(start, end);
+
+        // Act
+        TransactionTokenizer tokenizer = new TransactionTokenizer(text, start, end);
+
+        // Assert
+        assertTrue(matcher.find());
+        assertTrue(tokenizer.find());
+        assertEquals(matcher.start(), tokenizer.start());
+        assertEquals(matcher.end(5), tokenizer.end(5));
+        assertEquals("Shop", tokenizer.group(3));
+        assertFalse(tokenizer.find());
+        assertThrows(IndexOutOfBoundsException.class, () -> new TransactionTokenizer(text, end, start));
+
+    }
+
+    @Test
+    void testGroupCaseNoMatch() {
+
+        // Arrange
+        TransactionTokenizer tokenizer = new TransactionTokenizer("January1January2Shop1.00");
+
+        // Act and Assert
+        assertThrows(IllegalStateException.class, () -> tokenizer.group(1));
+        assertTrue(tokenizer.find());
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.group(6));
+
+    }
+
+}